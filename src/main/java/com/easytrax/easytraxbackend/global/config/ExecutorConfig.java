@@ -0,0 +1,32 @@
+package com.easytrax.easytraxbackend.global.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    // 요청 스레드와 병렬로 실행할 외부 I/O (S3 업로드 등) 전용
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ioExecutor(@Value("${executor.io.pool-size:32}") int poolSize,
+                                      @Value("${executor.io.queue-capacity:256}") int queueCapacity) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "io-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 큐가 가득 차면 요청 스레드에서 직접 실행한다 (순차 처리로 돌아갈 뿐 실패하지 않는다)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.easytrax.easytraxbackend.global.config;
+
+import com.easytrax.easytraxbackend.global.gemini.GeminiClient;
+import com.easytrax.easytraxbackend.global.gemini.GeminiHedgingPolicy;
+import com.easytrax.easytraxbackend.global.gemini.GeminiRetryBudget;
+import com.easytrax.easytraxbackend.global.gemini.GeminiRetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class GeminiClientConfig {
+
+    @Bean
+    public GeminiClient geminiClient(GeminiConfig geminiConfig,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${gemini.client.connect-timeout:5s}") Duration connectTimeout,
+                                     @Value("${gemini.client.request-timeout:60s}") Duration requestTimeout,
+                                     @Value("${gemini.client.max-concurrent-requests:64}") int maxConcurrentRequests,
+                                     @Value("${gemini.client.acquire-timeout:10s}") Duration acquireTimeout,
+                                     @Value("${gemini.client.retry.max-attempts:3}") int maxAttempts,
+                                     @Value("${gemini.client.retry.base-backoff:200ms}") Duration baseBackoff,
+                                     @Value("${gemini.client.retry.max-backoff:5s}") Duration maxBackoff,
+                                     @Value("${gemini.client.retry.budget-ratio:0.1}") double budgetRatio,
+                                     @Value("${gemini.client.retry.budget-max-tokens:20}") double budgetMaxTokens,
+                                     @Value("${gemini.client.hedging.enabled:true}") boolean hedgingEnabled,
+                                     @Value("${gemini.client.hedging.percentile:0.95}") double hedgingPercentile,
+                                     @Value("${gemini.client.hedging.window-size:500}") int hedgingWindowSize,
+                                     @Value("${gemini.client.hedging.min-samples:50}") int hedgingMinSamples,
+                                     @Value("${gemini.client.hedging.min-delay:1s}") Duration hedgingMinDelay) {
+        // HTTP/2 를 우선 사용하고, 지원하지 않는 서버(로컬 스텁 등)에는 HTTP/1.1 keep-alive 로 붙는다
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        return new GeminiClient(httpClient, geminiConfig.getBaseUrl(), geminiConfig.getKey(), geminiConfig.getModel(),
+                maxConcurrentRequests, requestTimeout, acquireTimeout,
+                new GeminiRetryPolicy(maxAttempts, baseBackoff, maxBackoff),
+                // 재시도와 hedge 가 같은 예산을 나눠 쓴다 (원래 요청 대비 budget-ratio 배까지)
+                new GeminiRetryBudget(budgetRatio, budgetMaxTokens),
+                // 작업별로 따로 만든다
+                () -> new GeminiHedgingPolicy(hedgingEnabled, hedgingPercentile, hedgingWindowSize, hedgingMinSamples,
+                        hedgingMinDelay),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.easytrax.easytraxbackend.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// streamGenerateContent 로 받아 JSON 이 닫히는 즉시 파싱한다
+@Configuration
+@ConfigurationProperties(prefix = "gemini.streaming")
+@Getter
+@Setter
+public class GeminiStreamingConfig {
+    private boolean enabled;
+}
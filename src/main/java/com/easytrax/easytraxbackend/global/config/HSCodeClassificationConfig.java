@@ -0,0 +1,52 @@
+package com.easytrax.easytraxbackend.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "hscode.classification")
+@Getter
+@Setter
+public class HSCodeClassificationConfig {
+    private Batch batch = new Batch();
+    private Bypass bypass = new Bypass();
+    private Prompt prompt = new Prompt();
+
+    // 짧은 시간 창 안의 분류 요청을 묶어 한 번의 Gemini 호출로 처리
+    @Getter
+    @Setter
+    public static class Batch {
+        private boolean enabled = true;
+        private Duration window = Duration.ofMillis(20);
+        private int maxSize = 8;
+        private int concurrency = 4;
+        // 대기 중인 요청이 이 수를 넘으면 AI 호출 없이 키워드 결과로 답한다
+        private int queueCapacity = 256;
+        private Duration timeout = Duration.ofSeconds(60);
+    }
+
+    // 키워드 점수로 1위가 분명하면 AI 호출 없이 확정한다
+    @Getter
+    @Setter
+    public static class Bypass {
+        private boolean enabled = true;
+        private double minScore = 0.7;
+        private double minMargin = 0.3;
+        // 제품명이 이보다 짧으면 우회하지 않는다
+        private int minProductNameLength = 3;
+        // BM25 1위가 차점보다 이 비율 이상 앞서야 한다 ((1위 - 차점) / 1위)
+        private double minRelevanceMargin = 0.2;
+    }
+
+    // 프롬프트에는 BM25 상위 top-k 후보만, 후보 목록이 토큰 예산을 넘지 않도록 넣는다
+    @Getter
+    @Setter
+    public static class Prompt {
+        private int topK = 10;
+        private int candidateTokenBudget = 800;
+    }
+}
@@ -0,0 +1,287 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Gemini 작업(OCR, 분류 등) 하나를 감싸는 서킷 브레이커 + 적응형 동시 요청 한도.
+ * <p>
+ * 서킷: 최근 window-size 건 중 실패(타임아웃, 429, 5xx, 느린 호출) 비율이 failure-rate-threshold 이상이면 열리고,
+ * open-duration 이 지나면 half-open 으로 probe 요청 몇 건만 통과시켜 닫을지 다시 열지 정한다.
+ * <p>
+ * 한도(AIMD): 지연이 평소(EWMA) 대비 latency-tolerance 배 이내로 성공하면 한도를 조금씩 올리고,
+ * 실패하거나 느려지면 backoff-ratio 를 곱해 줄인다. 한도를 넘는 요청은 기다리지 않고 바로 거절한다.
+ * 지연은 GeminiClient 가 알려 주는 시도 단위로 재므로 재시도 백오프는 들어가지 않는다.
+ */
+@Slf4j
+public class GeminiCallGuard {
+
+    private static final String METRIC_PREFIX = "gemini.guard";
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public record Settings(int windowSize, int minimumCalls, double failureRateThreshold, Duration slowCallThreshold,
+                           Duration openDuration, int halfOpenProbes,
+                           int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+    }
+
+    // 이 스레드에서 진행 중인 execute. GeminiClient 가 같은 스레드에서 시도별 결과를 알려 온다
+    private static final ThreadLocal<Call> CURRENT_CALL = new ThreadLocal<>();
+
+    private final String operation;
+    private final Settings settings;
+
+    // 최근 호출 결과 (true = 실패)
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private double limit;
+    private int inFlight;
+    private double latencyEwmaNanos;
+
+    private final Counter rejectedOpen;
+    private final Counter rejectedLimit;
+
+    public GeminiCallGuard(String operation, Settings settings, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.settings = settings;
+        this.outcomes = new boolean[Math.max(1, settings.windowSize())];
+        this.limit = settings.initialLimit();
+
+        Gauge.builder(METRIC_PREFIX + ".limit", this, guard -> guard.currentLimit())
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in-flight", this, guard -> guard.currentInFlight())
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".state", this, guard -> guard.currentState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.rejectedOpen = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("operation", operation)
+                .tag("reason", "circuit-open")
+                .register(meterRegistry);
+        this.rejectedLimit = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("operation", operation)
+                .tag("reason", "limit")
+                .register(meterRegistry);
+    }
+
+    // 호출하지 않고 바로 대체 경로로 가야 하는지. half-open 에서 probe 자리가 남아 있으면 false
+    public synchronized boolean isOpen() {
+        refreshState();
+        return state == State.OPEN || state == State.HALF_OPEN && probesInFlight >= settings.halfOpenProbes();
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean probe = acquire();
+        Call current = new Call(this);
+        Call outer = CURRENT_CALL.get();
+        CURRENT_CALL.set(current);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onComplete(probe, current, System.nanoTime() - start, false);
+            return result;
+        } catch (GeminiUnavailableException e) {
+            // 보내 보지도 못하고 이 노드에서 거절된 호출(클라이언트 슬롯 부족 등)은 Gemini 상태와 무관하다
+            onRejected(probe);
+            throw e;
+        } catch (RuntimeException e) {
+            onComplete(probe, current, System.nanoTime() - start, isFailure(e));
+            throw e;
+        } finally {
+            if (outer == null) {
+                CURRENT_CALL.remove();
+            } else {
+                CURRENT_CALL.set(outer);
+            }
+        }
+    }
+
+    // GeminiClient 가 요청 한 번(시도)이 끝날 때마다 알린다. 감싸는 execute 가 없으면 무시한다
+    static void recordAttempt(long elapsedNanos, boolean failed) {
+        Call call = CURRENT_CALL.get();
+        if (call == null) {
+            return;
+        }
+        call.attempts++;
+        call.lastAttemptNanos = elapsedNanos;
+        call.guard.onAttempt(elapsedNanos, failed);
+    }
+
+    private synchronized boolean acquire() {
+        refreshState();
+        if (state == State.OPEN) {
+            rejectedOpen.increment();
+            throw new GeminiUnavailableException(operation + " 서킷이 열려 있습니다");
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= settings.halfOpenProbes()) {
+                rejectedOpen.increment();
+                throw new GeminiUnavailableException(operation + " 서킷 확인 중입니다");
+            }
+            probesInFlight++;
+            inFlight++;
+            return true;
+        }
+        if (inFlight >= (int) limit) {
+            rejectedLimit.increment();
+            throw new GeminiUnavailableException(operation + " 동시 요청 한도 초과: limit=" + (int) limit);
+        }
+        inFlight++;
+        return false;
+    }
+
+    // 시도마다 한도를 조정한다. 재시도 중 429 를 받았다면 최종 성공이어도 그만큼 한도를 줄인다
+    private synchronized void onAttempt(long elapsedNanos, boolean failed) {
+        adjustLimit(elapsedNanos, failed || isSlow(elapsedNanos));
+    }
+
+    private synchronized void onRejected(boolean probe) {
+        inFlight--;
+        if (probe) {
+            probesInFlight--;
+        }
+    }
+
+    private synchronized void onComplete(boolean probe, Call call, long wallNanos, boolean failed) {
+        inFlight--;
+        // GeminiClient 를 거친 호출은 마지막 시도의 지연으로 판단한다. 재시도 사이 백오프로 쉰 시간은 넣지 않는다
+        long elapsedNanos = call.attempts > 0 ? call.lastAttemptNanos : wallNanos;
+        boolean bad = failed || isSlow(elapsedNanos);
+
+        if (call.attempts == 0) {
+            adjustLimit(elapsedNanos, bad);
+        }
+
+        if (probe) {
+            probesInFlight--;
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (bad) {
+                open();
+            } else if (++probeSuccesses >= settings.halfOpenProbes()) {
+                close();
+            }
+            return;
+        }
+
+        if (state == State.CLOSED) {
+            record(bad);
+            if (outcomeCount >= settings.minimumCalls()
+                    && (double) failureCount / outcomeCount >= settings.failureRateThreshold()) {
+                open();
+            }
+        }
+    }
+
+    // AIMD: 정상 응답마다 1/limit 씩 늘려 한도만큼 응답이 오면 1 증가, 나쁜 응답이면 곱해서 줄인다
+    private void adjustLimit(long elapsedNanos, boolean bad) {
+        boolean latencyDegraded = latencyEwmaNanos > 0 && elapsedNanos > latencyEwmaNanos * settings.latencyTolerance();
+        if (bad || latencyDegraded) {
+            limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+        } else {
+            limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+        }
+
+        // 실패한 호출의 지연은 기준선에 넣지 않는다 (타임아웃이 기준을 끌어올리지 않도록)
+        if (!bad) {
+            latencyEwmaNanos = latencyEwmaNanos == 0 ? elapsedNanos : latencyEwmaNanos * 0.9 + elapsedNanos * 0.1;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void refreshState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= settings.openDuration().toNanos()) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+            log.info("Gemini {} 서킷 half-open", operation);
+        }
+    }
+
+    private void open() {
+        if (state != State.OPEN) {
+            log.warn("Gemini {} 서킷 open: 실패 {}/{}", operation, failureCount, outcomeCount);
+        }
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        limit = settings.minLimit();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        outcomeIndex = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+        log.info("Gemini {} 서킷 closed", operation);
+    }
+
+    private boolean isSlow(long elapsedNanos) {
+        return elapsedNanos > settings.slowCallThreshold().toNanos();
+    }
+
+    private static boolean isFailure(RuntimeException e) {
+        return e instanceof GeminiClientException clientException && isFailureStatus(clientException.getStatusCode());
+    }
+
+    // 호출 측 잘못(400 등)은 Gemini 장애로 보지 않는다. 0 은 응답을 받지 못한 경우 (타임아웃, 연결 실패)
+    static boolean isFailureStatus(int statusCode) {
+        return statusCode == 0 || statusCode == 429 || statusCode >= 500;
+    }
+
+    // execute 한 번 동안 GeminiClient 가 알린 시도들
+    private static final class Call {
+
+        private final GeminiCallGuard guard;
+        private int attempts;
+        private long lastAttemptNanos;
+
+        private Call(GeminiCallGuard guard) {
+            this.guard = guard;
+        }
+    }
+
+    private synchronized double currentLimit() {
+        return limit;
+    }
+
+    private synchronized int currentInFlight() {
+        return inFlight;
+    }
+
+    private synchronized State currentState() {
+        return state;
+    }
+}
@@ -0,0 +1,40 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 작업 이름별 GeminiCallGuard. OCR 장애가 분류 호출까지 막지 않도록 작업마다 따로 둔다.
+ */
+@Component
+public class GeminiCallGuards {
+
+    private final MeterRegistry meterRegistry;
+    private final GeminiCallGuard.Settings settings;
+    private final ConcurrentHashMap<String, GeminiCallGuard> guards = new ConcurrentHashMap<>();
+
+    public GeminiCallGuards(MeterRegistry meterRegistry,
+                            @Value("${gemini.guard.window-size:50}") int windowSize,
+                            @Value("${gemini.guard.minimum-calls:10}") int minimumCalls,
+                            @Value("${gemini.guard.failure-rate-threshold:0.5}") double failureRateThreshold,
+                            @Value("${gemini.guard.slow-call-threshold:30s}") Duration slowCallThreshold,
+                            @Value("${gemini.guard.open-duration:30s}") Duration openDuration,
+                            @Value("${gemini.guard.half-open-probes:3}") int halfOpenProbes,
+                            @Value("${gemini.guard.limit.initial:16}") int initialLimit,
+                            @Value("${gemini.guard.limit.min:2}") int minLimit,
+                            @Value("${gemini.guard.limit.max:64}") int maxLimit,
+                            @Value("${gemini.guard.limit.backoff-ratio:0.75}") double backoffRatio,
+                            @Value("${gemini.guard.limit.latency-tolerance:2.0}") double latencyTolerance) {
+        this.meterRegistry = meterRegistry;
+        this.settings = new GeminiCallGuard.Settings(windowSize, minimumCalls, failureRateThreshold, slowCallThreshold,
+                openDuration, halfOpenProbes, initialLimit, Math.max(1, minLimit), maxLimit, backoffRatio, latencyTolerance);
+    }
+
+    public GeminiCallGuard get(String operation) {
+        return guards.computeIfAbsent(operation, name -> new GeminiCallGuard(name, settings, meterRegistry));
+    }
+}
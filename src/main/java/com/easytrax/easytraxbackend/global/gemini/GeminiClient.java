@@ -0,0 +1,712 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 모든 서비스가 공유하는 Gemini generateContent 클라이언트.
+ * JDK HttpClient(HTTP/2, keep-alive 커넥션 재사용) 위에 동시 요청 수 제한과 호출별 마감 시간을 둔다.
+ * 빈 설정은 GeminiClientConfig 에 있으며, baseUrl 만 바꾸면 로컬 스텁 서버로도 호출할 수 있다.
+ * 이미지처럼 큰 요청은 RequestBodyWriter 로 JSON 을 파이프에 바로 써서 본문 전체를 메모리에 올리지 않는다.
+ * 지연 꼬리를 줄이기 위해 느린 요청은 hedge 하고, 429 / 5xx 는 jitter 를 둔 백오프로 재시도한다.
+ * 두 경우 모두 GeminiRetryBudget 안에서만 추가 호출한다.
+ * streamFirstJson 은 streamGenerateContent 로 받으면서 모델 출력의 첫 JSON 이 완성되는 즉시 반환한다.
+ * 응답 봉투는 JsonNode 트리 없이 스트리밍 파서로 읽는다 (readCandidateJson, textOf).
+ */
+@Slf4j
+public class GeminiClient {
+
+    private static final String METRIC_PREFIX = "gemini.client";
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+    private static final String STREAM_OPERATION_SUFFIX = ":stream";
+
+    // 요청 본문을 JsonGenerator 로 직접 쓴다
+    @FunctionalInterface
+    public interface RequestBodyWriter {
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String apiKey;
+    private final String model;
+    private final Duration defaultDeadline;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // 모델 출력은 스키마 밖의 필드가 섞여도 읽는다
+    private final ObjectReader payloadReader = objectMapper.reader()
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final ExecutorService bodyWriters;
+    private final Semaphore writerSlots;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter saturated;
+
+    private final GeminiRetryPolicy retryPolicy;
+    private final GeminiRetryBudget retryBudget;
+    // 작업(OCR, 분류 등)마다 응답 지연 분포가 달라 hedge 기준 표본을 따로 모은다
+    private final Supplier<GeminiHedgingPolicy> hedgingPolicyFactory;
+    private final ConcurrentHashMap<String, GeminiHedgingPolicy> hedgingPolicies = new ConcurrentHashMap<>();
+    private final Counter retries;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+    private final Counter earlyCompletions;
+
+    public GeminiClient(HttpClient httpClient, String baseUrl, String apiKey, String model,
+                        int maxConcurrentRequests, Duration defaultDeadline, Duration acquireTimeout,
+                        GeminiRetryPolicy retryPolicy, GeminiRetryBudget retryBudget, Supplier<GeminiHedgingPolicy> hedgingPolicyFactory,
+                        MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.defaultDeadline = defaultDeadline;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.meterRegistry = meterRegistry;
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = retryBudget;
+        this.hedgingPolicyFactory = hedgingPolicyFactory;
+
+        // 파이프마다 작성 스레드 하나: 동시 요청 한도와 hedge 요청까지 고려해 두 배로 제한하고, 유휴 스레드는 정리한다
+        // 슬롯(writerSlots)을 얻은 작업만 넣으므로 큐에는 스레드가 풀로 돌아오는 찰나만 머문다
+        AtomicInteger sequence = new AtomicInteger();
+        int maxWriters = Math.max(1, maxConcurrentRequests * 2);
+        this.writerSlots = new Semaphore(maxWriters);
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(maxWriters, maxWriters, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "gemini-body-writer-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        writers.allowCoreThreadTimeOut(true);
+        this.bodyWriters = writers;
+
+        Gauge.builder(METRIC_PREFIX + ".in-flight", inFlight, AtomicInteger::get)
+                .description("진행 중인 Gemini 요청 수")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".waiting", waiting, AtomicInteger::get)
+                .description("동시 요청 한도로 대기 중인 Gemini 요청 수")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".max-concurrent", () -> maxConcurrentRequests)
+                .register(meterRegistry);
+        this.saturated = Counter.builder(METRIC_PREFIX + ".saturated")
+                .description("대기 시간 안에 슬롯을 얻지 못해 거절된 요청 수")
+                .register(meterRegistry);
+        this.retries = Counter.builder(METRIC_PREFIX + ".retries").register(meterRegistry);
+        this.hedges = Counter.builder(METRIC_PREFIX + ".hedges").register(meterRegistry);
+        this.hedgeWins = Counter.builder(METRIC_PREFIX + ".hedge.wins")
+                .description("hedge 요청이 원래 요청보다 먼저 성공한 수")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder(METRIC_PREFIX + ".retry-budget.exhausted")
+                .description("추가 호출 예산이 없어 재시도나 hedge 를 생략한 수")
+                .register(meterRegistry);
+        this.earlyCompletions = Counter.builder(METRIC_PREFIX + ".stream.early-completions")
+                .description("JSON 이 닫혀 스트림 끝을 기다리지 않고 반환한 수")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".retry-budget.available", retryBudget, GeminiRetryBudget::available)
+                .register(meterRegistry);
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String generateContent(String operation, Object requestBody) {
+        return generateContent(operation, requestBody, defaultDeadline);
+    }
+
+    // 응답 본문(JSON 문자열)을 반환한다. 2xx 가 아니거나 마감 시간을 넘기면 GeminiClientException
+    // operation 은 hedge 지연 표본을 나누는 작업 이름이다
+    public String generateContent(String operation, Object requestBody, Duration deadline) {
+        return execute(HttpRequest.BodyPublishers.ofByteArray(serialize(requestBody)), deadline,
+                (body, deadlineAt) -> attempt(operation, body, deadlineAt));
+    }
+
+    public String generateContent(String operation, RequestBodyWriter bodyWriter) {
+        return generateContent(operation, bodyWriter, defaultDeadline);
+    }
+
+    public String generateContent(String operation, RequestBodyWriter bodyWriter, Duration deadline) {
+        return executeWithPipe(bodyWriter, deadline, (body, deadlineAt) -> attempt(operation, body, deadlineAt));
+    }
+
+    public String streamFirstJson(String operation, Object requestBody) {
+        return streamFirstJson(operation, requestBody, defaultDeadline);
+    }
+
+    // streamGenerateContent(alt=sse) 로 받으면서 모델 출력의 첫 JSON 값이 닫히는 즉시 그 JSON 텍스트를 반환한다
+    // 뒤따르는 설명 문장은 기다리지 않고 스트림을 끊는다. 끝까지 JSON 이 닫히지 않으면 받은 텍스트 전체를 반환한다
+    public String streamFirstJson(String operation, Object requestBody, Duration deadline) {
+        return execute(HttpRequest.BodyPublishers.ofByteArray(serialize(requestBody)), deadline,
+                (body, deadlineAt) -> attemptStream(operation, body, deadlineAt));
+    }
+
+    public String streamFirstJson(String operation, RequestBodyWriter bodyWriter) {
+        return streamFirstJson(operation, bodyWriter, defaultDeadline);
+    }
+
+    public String streamFirstJson(String operation, RequestBodyWriter bodyWriter, Duration deadline) {
+        return executeWithPipe(bodyWriter, deadline, (body, deadlineAt) -> attemptStream(operation, body, deadlineAt));
+    }
+
+    // generateContent 응답 본문에서 첫 후보의 텍스트를 이어 붙인다. 텍스트가 없으면 null
+    public String textOf(String responseBody) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(responseBody)) {
+            if (!moveToParts(parser)) {
+                return null;
+            }
+            StringBuilder text = null;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean isText = "text".equals(parser.currentName());
+                    parser.nextToken();
+                    if (isText && parser.currentToken() == JsonToken.VALUE_STRING) {
+                        text = text == null ? new StringBuilder() : text;
+                        text.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return text == null ? null : text.toString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // JSON 모드(responseMimeType=application/json) 응답 본문을 트리 없이 한 번에 읽는다
+    // 봉투를 스트리밍 파서로 따라가 첫 후보의 text 값 버퍼에서 바로 type 으로 역직렬화한다. 텍스트가 없으면 null
+    public <T> T readCandidateJson(String responseBody, Class<T> type) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(responseBody)) {
+            if (!moveToParts(parser)) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (moveToField(parser, "text")) {
+                    if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                        return null;
+                    }
+                    try (JsonParser payload = objectMapper.getFactory().createParser(
+                            parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+                        return payloadReader.readValue(payload, type);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    // streamFirstJson 이 돌려준 JSON 텍스트를 type 으로 읽는다
+    public <T> T readJson(String json, Class<T> type) throws IOException {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        return payloadReader.readValue(json, type);
+    }
+
+    // {"candidates":[{"content":{"parts":[ 까지 이동한다. 다른 필드는 읽지 않고 건너뛴다
+    private static boolean moveToParts(JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.START_OBJECT
+                && moveToField(parser, "candidates") && parser.currentToken() == JsonToken.START_ARRAY
+                && parser.nextToken() == JsonToken.START_OBJECT
+                && moveToField(parser, "content") && parser.currentToken() == JsonToken.START_OBJECT
+                && moveToField(parser, "parts") && parser.currentToken() == JsonToken.START_ARRAY;
+    }
+
+    // 현재 객체에서 name 필드의 값 위치로 이동한다. 없으면 객체 끝에서 false
+    private static boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean match = name.equals(parser.currentName());
+            parser.nextToken();
+            if (match) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        String run(HttpRequest.BodyPublisher body, long deadlineAt);
+    }
+
+    private String executeWithPipe(RequestBodyWriter bodyWriter, Duration deadline, Attempt attempt) {
+        List<InputStream> pipes = new CopyOnWriteArrayList<>();
+        try {
+            return execute(HttpRequest.BodyPublishers.ofInputStream(() -> {
+                InputStream pipe = openPipe(bodyWriter);
+                pipes.add(pipe);
+                return pipe;
+            }), deadline, attempt);
+        } finally {
+            // 타임아웃 등으로 전송이 중단돼도 작성 스레드가 파이프에서 막혀 있지 않게 한다
+            pipes.forEach(GeminiClient::closeQuietly);
+        }
+    }
+
+    // 429 / 5xx / 연결 실패는 마감 시간과 추가 호출 예산 안에서 재시도한다
+    private String execute(HttpRequest.BodyPublisher body, Duration deadline, Attempt attempt) {
+        long deadlineAt = System.nanoTime() + deadline.toNanos();
+        retryBudget.onRequest();
+
+        for (int number = 1; ; number++) {
+            try {
+                return attempt.run(body, deadlineAt);
+            } catch (GeminiClientException e) {
+                Duration backoff = retryPolicy.backoff(number, e, remaining(deadlineAt));
+                if (backoff == null || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                if (!retryBudget.tryAcquire()) {
+                    budgetExhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Gemini 요청 재시도 {}회차 ({} 후): {}", number, backoff, e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    private HttpRequest newRequest(String method, HttpRequest.BodyPublisher body, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(String.format("%s/v1beta/models/%s:%s", baseUrl, model, method)))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("x-goog-api-key", apiKey)
+                .POST(body)
+                .build();
+    }
+
+    private String attempt(String operation, HttpRequest.BodyPublisher body, long deadlineAt) {
+        Duration remaining = remaining(deadlineAt);
+        if (remaining.isZero()) {
+            throw new GeminiClientException(0, "Gemini API 응답 시간 초과");
+        }
+        HttpRequest request = newRequest("generateContent", body, remaining);
+
+        acquire();
+        long start = System.nanoTime();
+        String outcome = "error";
+        int errorStatus = 0;
+        boolean succeeded = false;
+        try {
+            HttpResponse<String> response = sendHedged(hedgingPolicy(operation), request,
+                    HttpResponse.BodyHandlers.ofString(), deadlineAt);
+            outcome = String.valueOf(response.statusCode());
+            if (response.statusCode() / 100 != 2) {
+                errorStatus = response.statusCode();
+                throw new GeminiClientException(response.statusCode(),
+                        "Gemini API 오류 응답: status=" + response.statusCode(),
+                        GeminiRetryPolicy.parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+            }
+            succeeded = true;
+            return response.body();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            permits.release();
+            inFlight.decrementAndGet();
+            Timer.builder(METRIC_PREFIX + ".requests")
+                    .tag("operation", operation)
+                    .tag("status", outcome)
+                    .register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            GeminiCallGuard.recordAttempt(elapsedNanos, !succeeded && GeminiCallGuard.isFailureStatus(errorStatus));
+        }
+    }
+
+    // SSE 의 data 줄마다 텍스트 조각을 꺼내 JSON 이 닫히는지 본다
+    // 스트림은 응답 헤더가 올 때까지만 hedge 한다. 헤더까지의 지연은 전체 응답 지연과 분포가 달라 표본을 따로 모은다
+    private String attemptStream(String operation, HttpRequest.BodyPublisher body, long deadlineAt) {
+        Duration remaining = remaining(deadlineAt);
+        if (remaining.isZero()) {
+            throw new GeminiClientException(0, "Gemini API 응답 시간 초과");
+        }
+        HttpRequest request = newRequest("streamGenerateContent?alt=sse", body, remaining);
+
+        acquire();
+        long start = System.nanoTime();
+        String outcome = "error";
+        int errorStatus = 0;
+        boolean succeeded = false;
+        try {
+            HttpResponse<InputStream> response = sendHedged(hedgingPolicy(operation + STREAM_OPERATION_SUFFIX), request,
+                    HttpResponse.BodyHandlers.ofInputStream(), deadlineAt);
+            outcome = String.valueOf(response.statusCode());
+            try (InputStream in = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    errorStatus = response.statusCode();
+                    throw new GeminiClientException(response.statusCode(),
+                            "Gemini API 오류 응답: status=" + response.statusCode(),
+                            GeminiRetryPolicy.parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+                }
+
+                String json = readFirstJson(in, deadlineAt);
+                if (json == null) {
+                    throw new GeminiClientException(0, "Gemini API 응답 시간 초과");
+                }
+                succeeded = true;
+                return json;
+            } catch (IOException e) {
+                throw new GeminiClientException("Gemini 스트림 읽기 실패: " + e.getMessage(), e);
+            }
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            permits.release();
+            inFlight.decrementAndGet();
+            Timer.builder(METRIC_PREFIX + ".stream.requests")
+                    .tag("operation", operation)
+                    .tag("status", outcome)
+                    .register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            GeminiCallGuard.recordAttempt(elapsedNanos, !succeeded && GeminiCallGuard.isFailureStatus(errorStatus));
+        }
+    }
+
+    // 마감 시간이 지나면 스트림을 닫아 읽기를 끝낸다. 그 경우 null
+    private String readFirstJson(InputStream in, long deadlineAt) throws IOException {
+        CompletableFuture<Void> watchdog = CompletableFuture.runAsync(() -> closeQuietly(in),
+                CompletableFuture.delayedExecutor(remaining(deadlineAt).toNanos(), TimeUnit.NANOSECONDS));
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            JsonCompletionScanner scanner = new JsonCompletionScanner();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String text = textOf(line.substring("data:".length()).trim());
+                if (text != null && scanner.feed(text)) {
+                    // 나머지 스트림은 try-with-resources 에서 닫으면서 취소된다
+                    earlyCompletions.increment();
+                    return scanner.result();
+                }
+            }
+            return remaining(deadlineAt).isZero() ? null : scanner.result();
+        } catch (IOException e) {
+            if (remaining(deadlineAt).isZero()) {
+                return null;
+            }
+            throw e;
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    // 원래 요청이 hedge 지연 안에 답하지 않으면 같은 요청을 한 번 더 보내고 먼저 성공한 쪽을 쓴다
+    // hedge 는 추가 호출 예산과 남는 동시 요청 슬롯이 있을 때만 보낸다
+    // 스트림(InputStream 본문)은 헤더를 받은 시점에 끝난 것으로 보며, 진 쪽의 본문은 닫는다
+    private <T> HttpResponse<T> sendHedged(GeminiHedgingPolicy hedgingPolicy, HttpRequest request,
+                                           HttpResponse.BodyHandler<T> bodyHandler, long deadlineAt) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> primary = sendAsync(hedgingPolicy, request, bodyHandler, start);
+
+        Optional<Duration> hedgeDelay = hedgingPolicy.delay();
+        if (hedgeDelay.isEmpty() || hedgeDelay.get().compareTo(remaining(deadlineAt)) >= 0) {
+            return await(primary, deadlineAt);
+        }
+
+        try {
+            return primary.get(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 지연 꼬리에 걸린 요청. 아래에서 hedge 를 보낸다
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Gemini API 호출 중단", e);
+        } catch (ExecutionException e) {
+            throw callFailure(e.getCause());
+        }
+
+        if (!retryBudget.tryAcquire()) {
+            budgetExhausted.increment();
+            return await(primary, deadlineAt);
+        }
+        if (!permits.tryAcquire()) {
+            return await(primary, deadlineAt);
+        }
+
+        hedges.increment();
+        inFlight.incrementAndGet();
+        CompletableFuture<HttpResponse<T>> hedge = sendAsync(hedgingPolicy, request, bodyHandler, System.nanoTime());
+        hedge.whenComplete((response, error) -> {
+            permits.release();
+            inFlight.decrementAndGet();
+        });
+
+        HttpResponse<T> response = null;
+        try {
+            response = await(firstSuccessful(primary, hedge), deadlineAt);
+            if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response) {
+                hedgeWins.increment();
+            }
+            return response;
+        } finally {
+            HttpResponse<T> winner = response;
+            for (CompletableFuture<HttpResponse<T>> future : List.of(primary, hedge)) {
+                future.cancel(true);
+                // 이미 헤더를 받은 쪽의 스트림 본문은 닫아야 연결이 풀린다
+                future.thenAccept(other -> {
+                    if (other != winner && other.body() instanceof Closeable body) {
+                        closeQuietly(body);
+                    }
+                });
+            }
+        }
+    }
+
+    private GeminiHedgingPolicy hedgingPolicy(String operation) {
+        return hedgingPolicies.computeIfAbsent(operation, name -> hedgingPolicyFactory.get());
+    }
+
+    // 성공 응답의 지연만 hedge 기준에 넣는다
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(GeminiHedgingPolicy hedgingPolicy, HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> bodyHandler, long start) {
+        CompletableFuture<HttpResponse<T>> future = httpClient.sendAsync(request, bodyHandler);
+        // 취소가 실제 요청까지 전달되도록 원래 future 를 돌려준다
+        future.whenComplete((response, error) -> {
+            if (error == null && response.statusCode() / 100 == 2) {
+                hedgingPolicy.record(System.nanoTime() - start);
+            }
+        });
+        return future;
+    }
+
+    // 둘 중 먼저 2xx 로 끝난 응답. 둘 다 실패하면 나중에 끝난 쪽의 결과를 그대로 넘긴다
+    private static <T> CompletableFuture<HttpResponse<T>> firstSuccessful(CompletableFuture<HttpResponse<T>> first,
+                                                                        CompletableFuture<HttpResponse<T>> second) {
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        BiConsumer<HttpResponse<T>, Throwable> handler = (response, error) -> {
+            if (error == null && response.statusCode() / 100 == 2) {
+                result.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                if (error == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            }
+        };
+        first.whenComplete(handler);
+        second.whenComplete(handler);
+        return result;
+    }
+
+    // 별도 스레드가 JSON 을 파이프에 쓰고, HttpClient 는 반대쪽에서 읽어 전송한다. 메모리는 파이프 버퍼만큼만 쓴다
+    // 작성 스레드가 모두 사용 중이면 acquire-timeout 까지만 기다리고, 본문을 메모리에 쌓아 보내지 않고 실패한다
+    private InputStream openPipe(RequestBodyWriter bodyWriter) {
+        acquireWriterSlot();
+
+        WriterAwarePipe pipe = new WriterAwarePipe();
+        PipedOutputStream out;
+        try {
+            out = new PipedOutputStream(pipe);
+        } catch (IOException e) {
+            writerSlots.release();
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            bodyWriters.execute(() -> {
+                try {
+                    writeBody(bodyWriter, out);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Gemini 요청 본문 작성 실패: {}", e.getMessage());
+                    pipe.failure = e;
+                } finally {
+                    closeQuietly(out);
+                    writerSlots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            writerSlots.release();
+            closeQuietly(out);
+            closeQuietly(pipe);
+            throw new GeminiUnavailableException("Gemini 클라이언트 종료 중");
+        }
+        return pipe;
+    }
+
+    private void acquireWriterSlot() {
+        try {
+            if (!writerSlots.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                saturated.increment();
+                throw new GeminiUnavailableException("Gemini 요청 본문 작성 스레드 부족");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Gemini 요청 대기 중단", e);
+        }
+    }
+
+    private void writeBody(RequestBodyWriter bodyWriter, OutputStream out) throws IOException {
+        // 실패 시 닫히지 않은 JSON 을 자동으로 닫아 정상 본문처럼 보내지 않도록 한다
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        bodyWriter.writeTo(generator);
+        generator.close();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bodyWriters.shutdownNow();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // 이미 닫힘
+        }
+    }
+
+    // 작성 쪽이 실패하면 잘린 본문을 정상 종료로 보내지 않도록 읽는 쪽에 오류를 넘긴다
+    private static class WriterAwarePipe extends PipedInputStream {
+
+        private volatile Exception failure;
+
+        private WriterAwarePipe() {
+            super(PIPE_BUFFER_SIZE);
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                checkFailure();
+            }
+            return b;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                checkFailure();
+            }
+            return n;
+        }
+
+        private void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("요청 본문 작성 실패", failure);
+            }
+        }
+    }
+
+    private static <T> HttpResponse<T> await(CompletableFuture<HttpResponse<T>> future, long deadlineAt) {
+        try {
+            // request.timeout 은 헤더 수신까지만 보므로 본문까지 포함한 마감 시간을 따로 건다
+            return future.get(remaining(deadlineAt).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new GeminiClientException("Gemini API 응답 시간 초과", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Gemini API 호출 중단", e);
+        } catch (ExecutionException e) {
+            throw callFailure(e.getCause());
+        }
+    }
+
+    // 본문 작성 슬롯 부족처럼 클라이언트 안에서 난 GeminiClientException 은 감싸지 않고 그대로 던진다
+    private static GeminiClientException callFailure(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof GeminiClientException failure) {
+                return failure;
+            }
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return new GeminiClientException("Gemini API 호출 실패: " + cause.getMessage(), cause);
+    }
+
+    private static Duration remaining(long deadlineAt) {
+        return Duration.ofNanos(Math.max(0, deadlineAt - System.nanoTime()));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Gemini 재시도 대기 중단", e);
+        }
+    }
+
+    private void acquire() {
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                saturated.increment();
+                throw new GeminiUnavailableException("Gemini 동시 요청 한도 초과");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Gemini 요청 대기 중단", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        inFlight.incrementAndGet();
+    }
+
+    private byte[] serialize(Object requestBody) {
+        try {
+            return objectMapper.writeValueAsBytes(requestBody);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Gemini 요청 직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Gemini 호출 실패. HTTP 응답을 받지 못한 경우(타임아웃, 연결 실패, 풀 포화) statusCode 는 0 이다.
+ * retryAfter 는 응답에 Retry-After 헤더가 있을 때만 채워진다.
+ */
+@Getter
+public class GeminiClientException extends RuntimeException {
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public GeminiClientException(int statusCode, String message) {
+        this(statusCode, message, null);
+    }
+
+    public GeminiClientException(int statusCode, String message, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public GeminiClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.retryAfter = null;
+    }
+}
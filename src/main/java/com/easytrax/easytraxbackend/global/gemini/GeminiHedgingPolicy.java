@@ -0,0 +1,65 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 최근 성공 응답 지연의 백분위(percentile)를 hedge 지연으로 쓴다.
+ * 원래 요청이 이 시간 안에 응답하지 않으면 같은 요청을 한 번 더 보낸다.
+ * 표본이 min-samples 보다 적으면 hedge 하지 않는다.
+ * 이미지 OCR 과 텍스트 분류는 지연 분포가 달라 GeminiClient 가 작업(operation)마다 하나씩 둔다.
+ */
+public class GeminiHedgingPolicy {
+
+    // 매 요청마다 정렬하지 않도록 일정 표본마다 다시 계산한다
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final Duration minDelay;
+
+    private final long[] samples;
+    private int index;
+    private int count;
+    private int sinceRecompute;
+    private long delayNanos = -1;
+
+    public GeminiHedgingPolicy(boolean enabled, double percentile, int windowSize, int minSamples, Duration minDelay) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.samples = new long[Math.max(1, windowSize)];
+        this.minSamples = Math.min(minSamples, this.samples.length);
+        this.minDelay = minDelay;
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[index] = latencyNanos;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_INTERVAL || delayNanos < 0 && count >= minSamples) {
+            recompute();
+        }
+    }
+
+    public synchronized Optional<Duration> delay() {
+        if (!enabled || count < minSamples || delayNanos < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(Math.max(delayNanos, minDelay.toNanos())));
+    }
+
+    private void recompute() {
+        sinceRecompute = 0;
+        if (count < minSamples) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * count) - 1;
+        delayNanos = sorted[Math.max(0, Math.min(rank, count - 1))];
+    }
+}
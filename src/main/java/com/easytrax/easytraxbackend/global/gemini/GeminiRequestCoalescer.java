@@ -0,0 +1,257 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 Gemini 요청을 한 번만 보내도록 묶는다 (single-flight).
+ * 노드 안에서는 진행 중인 future 를 공유하고, 노드 간에는 Redis 락/결과 키로 묶는다.
+ * 락은 호출이 끝날 때까지 lock-ttl 의 1/3 마다 연장하므로 긴 호출 도중 만료돼 다른 노드가 중복 호출하지 않는다.
+ * 다른 노드의 결과를 기다리는 쪽은 폴링하지 않고 pub/sub 완료 알림을 받아 결과 키를 읽는다.
+ */
+@Component
+@Slf4j
+public class GeminiRequestCoalescer {
+
+    private static final String LOCK_PREFIX = "gemini:inflight:";
+    private static final String RESULT_PREFIX = "gemini:result:";
+    private static final String DONE_CHANNEL = "gemini:coalesce:done";
+
+    // 내가 잡은 락일 때만 지운다
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // 내가 잡은 락일 때만 만료 시간을 늘린다
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Duration lockTtl;
+    private final Duration resultTtl;
+    // 다른 노드의 호출을 기다리는 최대 시간: 호출 마감 시간(재시도 포함) + 슬롯 대기 + 락 TTL
+    private final Duration maxRemoteWait;
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    // 다른 노드의 호출 완료 알림을 기다리는 이 노드의 요청 (노드 안에서는 해시당 하나뿐이다)
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> remoteWaiters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lockRenewer;
+
+    public GeminiRequestCoalescer(RedisTemplate<String, String> redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  @Value("${gemini.coalescing.lock-ttl:30s}") Duration lockTtl,
+                                  @Value("${gemini.coalescing.result-ttl:30s}") Duration resultTtl,
+                                  @Value("${gemini.client.request-timeout:60s}") Duration callDeadline,
+                                  @Value("${gemini.client.acquire-timeout:10s}") Duration acquireTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.lockTtl = lockTtl;
+        this.resultTtl = resultTtl;
+        this.maxRemoteWait = callDeadline.plus(acquireTimeout).plus(lockTtl);
+        this.lockRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gemini-coalescer-lock-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void subscribeDone() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            CompletableFuture<Void> waiter = remoteWaiters.get(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (waiter != null) {
+                waiter.complete(null);
+            }
+        }, new ChannelTopic(DONE_CHANNEL));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lockRenewer.shutdownNow();
+    }
+
+    public static String hash(String... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                md.update((part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    public String execute(String requestHash, Supplier<String> call) {
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(requestHash, mine);
+        if (existing != null) {
+            log.debug("진행 중인 Gemini 요청에 합류합니다: {}", requestHash);
+            return await(existing);
+        }
+
+        try {
+            String result = executeAcrossCluster(requestHash, call);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(requestHash, mine);
+        }
+    }
+
+    private String executeAcrossCluster(String requestHash, Supplier<String> call) {
+        String lockKey = LOCK_PREFIX + requestHash;
+        String resultKey = RESULT_PREFIX + requestHash;
+        String owner = UUID.randomUUID().toString();
+
+        boolean locked;
+        try {
+            String finished = redisTemplate.opsForValue().get(resultKey);
+            if (finished != null) {
+                return finished;
+            }
+
+            locked = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, owner, lockTtl));
+            if (!locked) {
+                String awaited = awaitRemoteResult(requestHash, lockKey, resultKey);
+                if (awaited != null) {
+                    return awaited;
+                }
+                // 다른 노드의 요청이 실패했거나 락이 만료됐다면 직접 호출한다
+                locked = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, owner, lockTtl));
+            }
+        } catch (Exception e) {
+            log.warn("Gemini 요청 병합용 Redis 접근 실패 - 단독 호출합니다: {}", e.getMessage());
+            return call.get();
+        }
+
+        ScheduledFuture<?> renewal = locked ? scheduleRenewal(lockKey, owner) : null;
+        try {
+            String result = call.get();
+            if (locked && result != null) {
+                storeResult(resultKey, result);
+            }
+            return result;
+        } finally {
+            if (locked) {
+                renewal.cancel(false);
+                releaseLock(lockKey, owner);
+                // 실패해도 알려서 기다리던 노드가 바로 직접 호출하게 한다
+                publishDone(requestHash);
+            }
+        }
+    }
+
+    private ScheduledFuture<?> scheduleRenewal(String lockKey, String owner) {
+        long period = Math.max(1, lockTtl.toMillis() / 3);
+        return lockRenewer.scheduleAtFixedRate(() -> {
+            try {
+                redisTemplate.execute(RENEW_SCRIPT, List.of(lockKey), owner, String.valueOf(lockTtl.toMillis()));
+            } catch (Exception e) {
+                log.warn("Gemini 요청 락 연장 실패: {}", e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // 결과가 있으면 반환하고, 상대 호출이 결과 없이 끝났거나 너무 오래 걸리면 null (호출 측이 직접 호출한다)
+    private String awaitRemoteResult(String requestHash, String lockKey, String resultKey) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        remoteWaiters.put(requestHash, done);
+        long deadline = System.nanoTime() + maxRemoteWait.toNanos();
+        try {
+            while (true) {
+                // 구독 등록 전에 끝났을 수 있으므로 기다리기 전에 먼저 확인한다
+                String result = redisTemplate.opsForValue().get(resultKey);
+                if (result != null || done.isDone() || !Boolean.TRUE.equals(redisTemplate.hasKey(lockKey))) {
+                    return result;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("다른 노드의 Gemini 요청이 {} 안에 끝나지 않아 직접 호출합니다", maxRemoteWait);
+                    return null;
+                }
+                try {
+                    // 알림이 유실돼도 lock-ttl 마다 한 번은 다시 확인한다
+                    done.get(Math.min(remaining, lockTtl.toNanos()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // 다시 확인
+                } catch (ExecutionException e) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            remoteWaiters.remove(requestHash, done);
+        }
+    }
+
+    private void storeResult(String resultKey, String result) {
+        try {
+            redisTemplate.opsForValue().set(resultKey, result, resultTtl);
+        } catch (Exception e) {
+            log.warn("Gemini 응답 공유 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private void publishDone(String requestHash) {
+        try {
+            redisTemplate.convertAndSend(DONE_CHANNEL, requestHash);
+        } catch (Exception e) {
+            log.warn("Gemini 요청 완료 알림 실패: {}", e.getMessage());
+        }
+    }
+
+    private void releaseLock(String lockKey, String owner) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), owner);
+        } catch (Exception e) {
+            log.warn("Gemini 요청 락 해제 실패: {}", e.getMessage());
+        }
+    }
+
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
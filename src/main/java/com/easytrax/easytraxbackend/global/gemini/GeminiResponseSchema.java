@@ -0,0 +1,52 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * generationConfig.responseSchema 에 넣을 스키마 (OpenAPI 부분 집합).
+ * JSON 모드로 요청하면 모델이 설명 문장이나 ``` 펜스 없이 스키마에 맞는 JSON 만 출력한다.
+ */
+public final class GeminiResponseSchema {
+
+    private GeminiResponseSchema() {
+    }
+
+    // {"responseMimeType":"application/json","responseSchema":schema}
+    public static Map<String, Object> jsonGenerationConfig(Map<String, Object> schema) {
+        return Map.of("responseMimeType", "application/json", "responseSchema", schema);
+    }
+
+    public static Map<String, Object> string(String description) {
+        return Map.of("type", "STRING", "description", description);
+    }
+
+    public static Map<String, Object> number(String description) {
+        return Map.of("type", "NUMBER", "description", description);
+    }
+
+    public static Map<String, Object> integer(String description) {
+        return Map.of("type", "INTEGER", "description", description);
+    }
+
+    // 주어진 순서대로 생성하도록 propertyOrdering 을 함께 넣는다. 모든 속성이 필수
+    @SafeVarargs
+    public static Map<String, Object> object(Map.Entry<String, Map<String, Object>>... properties) {
+        Map<String, Object> schemaProperties = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> property : properties) {
+            schemaProperties.put(property.getKey(), property.getValue());
+            names.add(property.getKey());
+        }
+        return Map.of("type", "OBJECT",
+                "properties", schemaProperties,
+                "required", names,
+                "propertyOrdering", names);
+    }
+
+    public static Map<String, Object> array(Map<String, Object> items) {
+        return Map.of("type", "ARRAY", "items", items);
+    }
+}
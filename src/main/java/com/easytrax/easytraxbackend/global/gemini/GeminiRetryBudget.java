@@ -0,0 +1,35 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+/**
+ * 재시도와 hedge 요청에 쓰는 추가 호출 예산 (token bucket).
+ * 원래 요청 한 건마다 ratio 만큼 적립되고 추가 호출 한 건마다 1 을 쓰므로,
+ * 추가 호출은 장기적으로 원래 요청 수의 ratio 배를 넘지 않는다. 장애 중 재시도 폭주로 할당량을 두 배로 쓰지 않게 한다.
+ */
+public class GeminiRetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public GeminiRetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double available() {
+        return tokens;
+    }
+}
@@ -0,0 +1,67 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 429 / 5xx / 연결 실패에 대한 재시도 간격. 지수 백오프에 full jitter 를 적용하고,
+ * 서버가 Retry-After 를 주면 그보다 일찍 다시 보내지 않는다. 남은 마감 시간 안에 못 보내면 재시도하지 않는다.
+ */
+public class GeminiRetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    public GeminiRetryPolicy(int maxAttempts, Duration baseBackoff, Duration maxBackoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    // 재시도하지 않으면 null. attempt 는 방금 실패한 시도 번호 (1부터)
+    public Duration backoff(int attempt, GeminiClientException failure, Duration remaining) {
+        if (attempt >= maxAttempts || !isRetryable(failure)) {
+            return null;
+        }
+
+        long ceiling = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        Duration delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        if (failure.getRetryAfter() != null && failure.getRetryAfter().compareTo(delay) > 0) {
+            delay = failure.getRetryAfter();
+        }
+        return delay.compareTo(remaining) < 0 ? delay : null;
+    }
+
+    // 호출하지 않고 거절한 경우(서킷, 풀 포화)와 400 류는 다시 보내도 결과가 같다
+    private static boolean isRetryable(GeminiClientException failure) {
+        if (failure instanceof GeminiUnavailableException) {
+            return false;
+        }
+        int status = failure.getStatusCode();
+        return status == 0 || status == 429 || status >= 500;
+    }
+
+    // 초 단위 숫자 또는 HTTP-date. 해석할 수 없으면 null
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+            // HTTP-date 형식
+        }
+        try {
+            Duration until = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+/**
+ * 서킷이 열려 있거나 동시 요청 한도를 넘어 Gemini 를 호출하지 않고 거절한 경우.
+ */
+public class GeminiUnavailableException extends GeminiClientException {
+
+    public GeminiUnavailableException(String message) {
+        super(0, message);
+    }
+}
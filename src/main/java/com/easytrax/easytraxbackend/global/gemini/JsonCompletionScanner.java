@@ -0,0 +1,64 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+/**
+ * 조각으로 들어오는 모델 출력에서 첫 번째 최상위 JSON 객체(또는 배열)가 닫히는 시점을 찾는다.
+ * 문자열 안의 괄호와 이스케이프는 무시하며, JSON 앞뒤의 설명 문장이나 ``` 펜스는 건너뛴다.
+ */
+public class JsonCompletionScanner {
+
+    private final StringBuilder text = new StringBuilder();
+    private int scanned;
+    private int start = -1;
+    private int end = -1;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    // 조각을 이어 붙이고, 첫 JSON 값이 완성되었으면 true
+    public boolean feed(String chunk) {
+        if (isComplete()) {
+            return true;
+        }
+        text.append(chunk);
+
+        for (; scanned < text.length(); scanned++) {
+            char c = text.charAt(scanned);
+            if (start < 0) {
+                if (c == '{' || c == '[') {
+                    start = scanned;
+                    depth = 1;
+                }
+                continue;
+            }
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) {
+                    end = scanned + 1;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isComplete() {
+        return end > 0;
+    }
+
+    // 완성된 JSON. 끝까지 닫히지 않았으면 받은 텍스트 전체 (기존 파서가 최대한 해석하도록)
+    public String result() {
+        return isComplete() ? text.substring(start, end) : text.toString();
+    }
+}
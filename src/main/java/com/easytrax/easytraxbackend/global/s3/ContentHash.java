@@ -0,0 +1,32 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 파일 내용의 SHA-256 (16진수). 같은 바이트는 같은 S3 객체와 OCR 캐시 항목으로 묶인다.
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    public static String of(InputStreamSource source) throws IOException {
+        try (InputStream in = source.getInputStream()) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                md.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+import java.time.Instant;
+
+/**
+ * 클라이언트가 S3 에 직접 PUT 할 수 있는 서명된 URL. Content-Type 과 Content-Length 가 서명에 포함된다.
+ */
+public record PresignedUpload(String key, String url, Instant expiresAt) {
+}
@@ -0,0 +1,289 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * S3AsyncClient 기반 업로드. 호출 스레드를 막지 않고 CompletableFuture 로 결과를 돌려준다.
+ * 단일 PUT 은 스트림을 그대로 보내고, multipart-threshold 이상인 파일은 part-size 단위로 나눠
+ * 최대 concurrency 개의 파트를 동시에 올린다. 메모리에는 한 번에 (concurrency × part-size) 이하만 머문다.
+ */
+@Component
+@Slf4j
+public class S3AsyncUploader {
+
+    // S3 가 허용하는 마지막 파트 외 최소 파트 크기
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final ExecutorService ioExecutor;
+    private final long partSize;
+    private final long multipartThreshold;
+    private final int concurrency;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger partsInFlight = new AtomicInteger();
+    private final Counter uploadedBytes;
+
+    public S3AsyncUploader(S3AsyncClient s3AsyncClient,
+                           @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${cloud.aws.s3.upload.part-size:8MB}") DataSize partSize,
+                           @Value("${cloud.aws.s3.upload.multipart-threshold:16MB}") DataSize multipartThreshold,
+                           @Value("${cloud.aws.s3.upload.concurrency:4}") int concurrency) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.ioExecutor = ioExecutor;
+        this.meterRegistry = meterRegistry;
+        this.partSize = Math.max(MIN_PART_SIZE, partSize.toBytes());
+        this.multipartThreshold = Math.max(this.partSize, multipartThreshold.toBytes());
+        this.concurrency = Math.max(1, concurrency);
+
+        meterRegistry.gauge("s3.upload.parts.in-flight", partsInFlight);
+        this.uploadedBytes = Counter.builder("s3.upload.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // 객체가 없으면 false
+    public CompletableFuture<Boolean> exists(String bucket, String key) {
+        return s3AsyncClient.headObject(builder -> builder.bucket(bucket).key(key))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof NoSuchKeyException
+                            || cause instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                        return false;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    // onlyIfAbsent 면 같은 키의 객체가 이미 있을 때 S3 가 412 로 거절한다
+    public CompletableFuture<Void> upload(String bucket, String key, String contentType,
+                                          InputStreamSource source, long size, boolean onlyIfAbsent) {
+        boolean multipart = size >= multipartThreshold;
+        long startedAt = System.nanoTime();
+
+        CompletableFuture<Void> upload = multipart
+                ? uploadMultipart(bucket, key, contentType, source, size, onlyIfAbsent)
+                : uploadSingle(bucket, key, contentType, source, size, onlyIfAbsent);
+
+        return upload.whenComplete((ignored, error) -> record(multipart ? "multipart" : "single", size, startedAt, error));
+    }
+
+    // 스트림을 그대로 넘겨 SDK 가 ioExecutor 에서 읽으며 보낸다. 파일 전체를 배열로 복사하지 않는다
+    private CompletableFuture<Void> uploadSingle(String bucket, String key, String contentType,
+                                                 InputStreamSource source, long size, boolean onlyIfAbsent) {
+        return CompletableFuture.supplyAsync(() -> open(source), ioExecutor)
+                .thenCompose(in -> s3AsyncClient.putObject(builder -> {
+                            builder.bucket(bucket).key(key).contentType(contentType).contentLength(size);
+                            if (onlyIfAbsent) {
+                                builder.overrideConfiguration(config -> config.putHeader("If-None-Match", "*"));
+                            }
+                        }, AsyncRequestBody.fromInputStream(in, size, ioExecutor))
+                        .whenComplete((response, error) -> closeQuietly(in)))
+                .<Void>thenApply(response -> null);
+    }
+
+    private CompletableFuture<Void> uploadMultipart(String bucket, String key, String contentType,
+                                                    InputStreamSource source, long size, boolean onlyIfAbsent) {
+        return s3AsyncClient.createMultipartUpload(builder -> builder.bucket(bucket).key(key).contentType(contentType))
+                .thenCompose(created -> {
+                    String uploadId = created.uploadId();
+                    return new PartUploader(bucket, key, uploadId, source, size).start()
+                            .thenCompose(parts -> s3AsyncClient.completeMultipartUpload(builder -> {
+                                builder.bucket(bucket).key(key).uploadId(uploadId)
+                                        .multipartUpload(upload -> upload.parts(parts));
+                                if (onlyIfAbsent) {
+                                    builder.overrideConfiguration(config -> config.putHeader("If-None-Match", "*"));
+                                }
+                            }))
+                            .<Void>thenApply(response -> null)
+                            .whenComplete((ignored, error) -> {
+                                if (error != null) {
+                                    abort(bucket, key, uploadId);
+                                }
+                            });
+                });
+    }
+
+    /**
+     * 파트를 순서대로 읽어 최대 concurrency 개까지 동시에 올린다.
+     * 파트 하나가 끝나면 그 콜백에서 다음 파트를 읽기 시작하므로 슬롯을 기다리며 막혀 있는 스레드가 없다.
+     */
+    private final class PartUploader {
+
+        private record Chunk(int partNumber, byte[] bytes) {
+        }
+
+        private final String bucket;
+        private final String key;
+        private final String uploadId;
+        private final InputStreamSource source;
+        private final CompletedPart[] completed;
+        private final AtomicInteger pendingParts;
+        private final CompletableFuture<List<CompletedPart>> result = new CompletableFuture<>();
+
+        // readNext 에서만 접근한다 (synchronized)
+        private InputStream in;
+        private long remaining;
+        private int nextPartNumber = 1;
+
+        private PartUploader(String bucket, String key, String uploadId, InputStreamSource source, long size) {
+            this.bucket = bucket;
+            this.key = key;
+            this.uploadId = uploadId;
+            this.source = source;
+            this.remaining = size;
+            int partCount = (int) ((size + partSize - 1) / partSize);
+            this.completed = new CompletedPart[partCount];
+            this.pendingParts = new AtomicInteger(partCount);
+        }
+
+        private CompletableFuture<List<CompletedPart>> start() {
+            result.whenComplete((parts, error) -> {
+                synchronized (this) {
+                    if (in != null) {
+                        closeQuietly(in);
+                    }
+                }
+            });
+            for (int i = 0; i < Math.min(concurrency, completed.length); i++) {
+                uploadNext();
+            }
+            return result;
+        }
+
+        private void uploadNext() {
+            try {
+                CompletableFuture.supplyAsync(this::readNext, ioExecutor)
+                        .thenCompose(chunk -> chunk == null ? CompletableFuture.<CompletedPart>completedFuture(null) : uploadPart(chunk))
+                        .whenComplete((part, error) -> {
+                            if (error != null) {
+                                result.completeExceptionally(unwrap(error));
+                            } else if (part != null) {
+                                completed[part.partNumber() - 1] = part;
+                                if (pendingParts.decrementAndGet() == 0) {
+                                    result.complete(List.of(completed));
+                                } else {
+                                    uploadNext();
+                                }
+                            }
+                        });
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        // 남은 파트가 없거나 이미 실패했으면 null
+        private synchronized Chunk readNext() {
+            if (result.isDone() || remaining == 0) {
+                return null;
+            }
+            try {
+                if (in == null) {
+                    in = source.getInputStream();
+                }
+                int length = (int) Math.min(partSize, remaining);
+                byte[] buffer = in.readNBytes(length);
+                if (buffer.length < length) {
+                    throw new EOFException("업로드 도중 파일이 끝났습니다. key=" + key);
+                }
+                remaining -= length;
+                return new Chunk(nextPartNumber++, buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private CompletableFuture<CompletedPart> uploadPart(Chunk chunk) {
+            partsInFlight.incrementAndGet();
+            return s3AsyncClient.uploadPart(builder -> builder.bucket(bucket).key(key).uploadId(uploadId)
+                                    .partNumber(chunk.partNumber()).contentLength((long) chunk.bytes().length),
+                            AsyncRequestBody.fromBytes(chunk.bytes()))
+                    .thenApply(response -> CompletedPart.builder().partNumber(chunk.partNumber()).eTag(response.eTag()).build())
+                    .whenComplete((part, error) -> partsInFlight.decrementAndGet());
+        }
+    }
+
+    // 완료되지 않은 multipart 업로드는 파트가 계속 과금되므로 실패 시 바로 정리한다
+    private void abort(String bucket, String key, String uploadId) {
+        s3AsyncClient.abortMultipartUpload(builder -> builder.bucket(bucket).key(key).uploadId(uploadId))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("multipart 업로드 취소 실패 key={}, uploadId={}: {}", key, uploadId, error.getMessage());
+                    }
+                });
+    }
+
+    private static InputStream open(InputStreamSource source) {
+        try {
+            return source.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // 이미 닫힘
+        }
+    }
+
+    private void record(String mode, long size, long startedAt, Throwable error) {
+        long elapsedNanos = System.nanoTime() - startedAt;
+        String outcome = error == null ? "success" : "failure";
+
+        Timer.builder("s3.upload")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (error == null && elapsedNanos > 0) {
+            uploadedBytes.increment(size);
+            DistributionSummary.builder("s3.upload.throughput")
+                    .baseUnit("bytes/s")
+                    .tag("mode", mode)
+                    .register(meterRegistry)
+                    .record(size * 1_000_000_000d / elapsedNanos);
+        }
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,268 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
+import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * S3 객체 삭제 큐. 키를 Redis 리스트에 모아 두었다가 주기적으로, 또는 flush-threshold 이상 쌓이면
+ * DeleteObjects 한 번에 최대 1000개씩 지운다.
+ * 같은 내용의 파일은 한 객체를 공유하므로, 큐에 넣은 뒤 같은 파일이 다시 올라와 참조될 수 있다.
+ * 그래서 min-age 가 지난 키만 꺼내고, 지우기 직전에 다시 참조 중인 키는 삭제하지 않고 버린다.
+ * 실패한 키는 시도 횟수를 올려 다시 넣고, max-attempts 를 넘기면 dead-letter 리스트에 남긴다.
+ * 참조 확인 없이 지우는 경로는 없다. 큐에 넣지 못하면 예외를 던지고 호출 측이 기록하거나 다시 시도한다.
+ */
+@Component
+@Slf4j
+public class S3DeletionQueue {
+
+    private static final String QUEUE_KEY = "s3:delete:queue";
+    private static final String DEAD_LETTER_KEY = "s3:delete:dead-letter";
+
+    // DeleteObjects 한 번에 지울 수 있는 최대 키 수
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    // 가장 오래된(오른쪽) ARGV[1] 개를 원자적으로 꺼낸다. RPOP count 는 Redis 6.2 부터라 LRANGE + LTRIM 으로 대신한다
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POP_OLDEST_SCRIPT = new DefaultRedisScript<>(
+            "local entries = redis.call('lrange', KEYS[1], -tonumber(ARGV[1]), -1) "
+                    + "if #entries > 0 then redis.call('ltrim', KEYS[1], 0, -#entries - 1) end "
+                    + "return entries",
+            List.class);
+
+    public record DeadLetter(String key, int attempts, String error, long failedAt) {
+    }
+
+    private record Entry(int attempts, long enqueuedAt, String key) {
+    }
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final S3Client s3Client;
+    private final ExecutorService ioExecutor;
+    private final MeterRegistry meterRegistry;
+    // 참조 확인 구현이 S3UploadService 에 의존하므로 순환을 피하려고 사용할 때 꺼낸다
+    private final ObjectProvider<S3ObjectReferenceChecker> referenceCheckers;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String bucketName;
+    private final int batchSize;
+    private final int flushThreshold;
+    private final int maxAttempts;
+    private final long minAgeMillis;
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    public S3DeletionQueue(RedisTemplate<String, String> redisTemplate,
+                           S3Client s3Client,
+                           @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                           MeterRegistry meterRegistry,
+                           ObjectProvider<S3ObjectReferenceChecker> referenceCheckers,
+                           @Value("${cloud.aws.s3.bucket}") String bucketName,
+                           @Value("${cloud.aws.s3.delete-queue.batch-size:1000}") int batchSize,
+                           @Value("${cloud.aws.s3.delete-queue.flush-threshold:500}") int flushThreshold,
+                           @Value("${cloud.aws.s3.delete-queue.max-attempts:5}") int maxAttempts,
+                           @Value("${cloud.aws.s3.delete-queue.min-age:5m}") Duration minAge) {
+        this.redisTemplate = redisTemplate;
+        this.s3Client = s3Client;
+        this.ioExecutor = ioExecutor;
+        this.meterRegistry = meterRegistry;
+        this.referenceCheckers = referenceCheckers;
+        this.bucketName = bucketName;
+        this.batchSize = Math.min(Math.max(1, batchSize), MAX_KEYS_PER_REQUEST);
+        this.flushThreshold = flushThreshold;
+        this.maxAttempts = maxAttempts;
+        this.minAgeMillis = minAge.toMillis();
+    }
+
+    public void enqueue(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> entries = keys.stream().map(key -> entry(0, now, key)).toList();
+        Long size;
+        try {
+            size = redisTemplate.opsForList().leftPushAll(QUEUE_KEY, entries);
+        } catch (Exception e) {
+            // 바로 지우면 min-age 와 참조 재확인을 건너뛰어, 그 사이 다시 참조된 객체까지 지울 수 있다
+            log.warn("S3 삭제 큐 등록 실패 ({}개): {}", keys.size(), e.getMessage());
+            meterRegistry.counter("s3.delete.queue.enqueue-failed").increment(keys.size());
+            throw new GeneralException(ErrorStatus.S3_DELETE_FAILED);
+        }
+        meterRegistry.counter("s3.delete.queue.enqueued").increment(keys.size());
+
+        if (size != null && size >= flushThreshold) {
+            try {
+                ioExecutor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                log.debug("S3 삭제 큐 즉시 비우기 생략 - 다음 주기에 처리합니다");
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cloud.aws.s3.delete-queue.flush-interval:30s}")
+    public void flush() {
+        // 한 노드 안에서는 한 번에 하나만 비운다. 노드 간에는 꺼내기 스크립트가 원자적이라 키가 겹치지 않는다
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<String> entries;
+            boolean reachedYoung = false;
+            do {
+                entries = popOldest();
+                if (entries.isEmpty()) {
+                    break;
+                }
+
+                // 오래된 것부터 꺼내므로 아직 min-age 가 안 된 항목을 만나면 나머지는 다음 주기에 본다
+                long cutoff = System.currentTimeMillis() - minAgeMillis;
+                List<Entry> ready = new ArrayList<>(entries.size());
+                List<String> young = new ArrayList<>();
+                for (String raw : entries) {
+                    Entry entry = parse(raw);
+                    if (entry.enqueuedAt() > cutoff) {
+                        young.add(raw);
+                    } else {
+                        ready.add(entry);
+                    }
+                }
+                if (!young.isEmpty()) {
+                    reachedYoung = true;
+                    // 꺼낸 순서를 유지해 다시 가장 오래된 쪽(오른쪽)에 둔다
+                    Collections.reverse(young);
+                    redisTemplate.opsForList().rightPushAll(QUEUE_KEY, young);
+                }
+                if (!ready.isEmpty()) {
+                    deleteBatch(ready);
+                }
+            } while (!reachedYoung && entries.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("S3 삭제 큐 처리 실패: {}", e.getMessage());
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    // 오래된 것부터 꺼낸 순서로 돌려준다
+    @SuppressWarnings("unchecked")
+    private List<String> popOldest() {
+        List<String> entries = redisTemplate.execute(POP_OLDEST_SCRIPT, List.of(QUEUE_KEY), String.valueOf(batchSize));
+        if (entries == null || entries.isEmpty()) {
+            return List.of();
+        }
+        List<String> oldestFirst = new ArrayList<>(entries);
+        Collections.reverse(oldestFirst);
+        return oldestFirst;
+    }
+
+    private void deleteBatch(List<Entry> entries) {
+        Map<String, Integer> attempts = new HashMap<>();
+        for (Entry entry : entries) {
+            attempts.merge(entry.key(), entry.attempts(), Math::max);
+        }
+
+        Map<String, String> failures = new HashMap<>();
+        try {
+            // 큐에 넣은 뒤 같은 파일이 다시 올라와 참조된 키는 지우지 않는다
+            Set<String> referenced = findReferencedKeys(attempts.keySet());
+            if (!referenced.isEmpty()) {
+                attempts.keySet().removeAll(referenced);
+                meterRegistry.counter("s3.delete.queue.skipped-referenced").increment(referenced.size());
+            }
+            if (attempts.isEmpty()) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            // 참조 여부를 모르면 지우지 않고 나중에 다시 시도한다
+            log.warn("S3 삭제 전 참조 확인 실패 ({}개): {}", attempts.size(), e.getMessage());
+            attempts.forEach((key, attempt) -> retryOrDeadLetter(key, attempt + 1, e.getMessage()));
+            return;
+        }
+
+        try {
+            DeleteObjectsResponse response = s3Client.deleteObjects(builder -> builder
+                    .bucket(bucketName)
+                    .delete(delete -> delete
+                            .quiet(true)
+                            .objects(attempts.keySet().stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())));
+            for (S3Error error : response.errors()) {
+                failures.put(error.key(), error.code() + " " + error.message());
+            }
+        } catch (SdkException e) {
+            attempts.keySet().forEach(key -> failures.put(key, e.getMessage()));
+        }
+
+        meterRegistry.counter("s3.delete.queue.deleted").increment(attempts.size() - failures.size());
+        if (!failures.isEmpty()) {
+            log.warn("S3 객체 삭제 실패 {}개 / {}개", failures.size(), attempts.size());
+            failures.forEach((key, error) -> retryOrDeadLetter(key, attempts.getOrDefault(key, 0) + 1, error));
+        }
+    }
+
+    private Set<String> findReferencedKeys(Collection<String> keys) {
+        Set<String> referenced = new HashSet<>();
+        referenceCheckers.forEach(checker -> referenced.addAll(checker.findReferencedKeys(keys)));
+        return referenced;
+    }
+
+    private void retryOrDeadLetter(String key, int attempt, String error) {
+        if (attempt < maxAttempts) {
+            redisTemplate.opsForList().leftPush(QUEUE_KEY, entry(attempt, System.currentTimeMillis(), key));
+            meterRegistry.counter("s3.delete.queue.retried").increment();
+            return;
+        }
+
+        try {
+            String deadLetter = objectMapper.writeValueAsString(
+                    new DeadLetter(key, attempt, error, System.currentTimeMillis()));
+            redisTemplate.opsForList().leftPush(DEAD_LETTER_KEY, deadLetter);
+        } catch (JsonProcessingException e) {
+            log.error("S3 삭제 dead-letter 직렬화 실패 key={}", key);
+        }
+        meterRegistry.counter("s3.delete.queue.dead-lettered").increment();
+        log.error("S3 객체 삭제 재시도 한도 초과 key={}: {}", key, error);
+    }
+
+    // "시도 횟수|등록 시각|키" 형식. 키에 '|' 가 있어도 앞의 두 구분자로만 나눈다
+    private static String entry(int attempts, long enqueuedAt, String key) {
+        return attempts + "|" + enqueuedAt + "|" + key;
+    }
+
+    private static Entry parse(String raw) {
+        int first = raw.indexOf('|');
+        int second = raw.indexOf('|', first + 1);
+        return new Entry(Integer.parseInt(raw.substring(0, first)), Long.parseLong(raw.substring(first + 1, second)),
+                raw.substring(second + 1));
+    }
+}
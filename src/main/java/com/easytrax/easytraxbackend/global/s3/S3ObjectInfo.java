@@ -0,0 +1,4 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+public record S3ObjectInfo(String key, String contentType, long contentLength) {
+}
@@ -0,0 +1,13 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 같은 내용의 파일은 한 객체를 공유하므로, 삭제 큐가 지우기 직전에 다시 참조된 키를 걸러낼 때 쓴다.
+ */
+public interface S3ObjectReferenceChecker {
+
+    // keys 중 아직 참조 중인 키
+    Set<String> findReferencedKeys(Collection<String> keys);
+}
@@ -3,50 +3,160 @@ package com.easytrax.easytraxbackend.global.s3;
 import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
 import com.easytrax.easytraxbackend.global.exception.GeneralException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkException;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class S3UploadService {
 
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final S3AsyncUploader s3AsyncUploader;
+    private final S3DeletionQueue s3DeletionQueue;
 
     @Value("${cloud.aws.s3.bucket}")
     private String bucketName;
 
     public String uploadFile(MultipartFile multipartFile) {
+        validateUpload(multipartFile);
+        try {
+            return upload(multipartFile, ContentHash.of(multipartFile)).url();
+        } catch (IOException e) {
+            throw new GeneralException(ErrorStatus.S3_UPLOAD_FAILED);
+        }
+    }
+
+    // 내용 해시를 키로 저장한다. 같은 내용의 객체가 이미 있으면 PUT 을 생략한다
+    public StoredFile upload(MultipartFile multipartFile, String contentHash) {
+        try {
+            return uploadAsync(multipartFile, contentHash).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof GeneralException cause) {
+                throw cause;
+            }
+            throw new GeneralException(ErrorStatus.S3_UPLOAD_FAILED);
+        }
+    }
+
+    // 요청 스레드를 막지 않는 업로드. 큰 파일은 multipart 로 나눠 병렬로 올린다
+    public CompletableFuture<StoredFile> uploadAsync(MultipartFile multipartFile, String contentHash) {
+        validateUpload(multipartFile);
+        String key = contentHash + extensionOf(multipartFile.getOriginalFilename());
+        String url = urlOf(key);
+
+        return s3AsyncUploader.exists(bucketName, key)
+                .thenCompose(exists -> exists
+                        ? CompletableFuture.completedFuture(false)
+                        // 동시에 같은 내용이 올라오면 한쪽만 생성자로 남긴다 (412 = 이미 존재)
+                        : s3AsyncUploader.upload(bucketName, key, multipartFile.getContentType(), multipartFile,
+                                multipartFile.getSize(), true).thenApply(ignored -> true))
+                .handle((created, error) -> {
+                    if (error == null) {
+                        return new StoredFile(url, contentHash, created);
+                    }
+                    Throwable cause = S3AsyncUploader.unwrap(error);
+                    if (cause instanceof S3Exception e && (e.statusCode() == 412 || e.statusCode() == 409)) {
+                        return new StoredFile(url, contentHash, false);
+                    }
+                    log.warn("S3 업로드 실패 key={}: {}", key, cause.getMessage());
+                    throw new GeneralException(ErrorStatus.S3_UPLOAD_FAILED);
+                });
+    }
+
+    private void validateUpload(MultipartFile multipartFile) {
         if (multipartFile == null || multipartFile.isEmpty() || multipartFile.getOriginalFilename() == null || multipartFile.getOriginalFilename().isBlank()) {
             throw new GeneralException(ErrorStatus.FILE_IS_EMPTY);
         }
-        String originalFilename = multipartFile.getOriginalFilename();
-        String uniqueFilename = createUniqueFilename(originalFilename);
+    }
+
+    // 객체가 없으면 empty
+    public Optional<S3ObjectInfo> findObject(String key) {
+        try {
+            HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build());
+            return Optional.of(new S3ObjectInfo(key, response.contentType(),
+                    response.contentLength() == null ? 0 : response.contentLength()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
 
+    // 클라이언트가 직접 올릴 PUT URL. 요청 시 같은 Content-Type, Content-Length 를 보내야 한다
+    public PresignedUpload presignUpload(String key, String contentType, long contentLength, Duration ttl) {
         try {
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                     .bucket(bucketName)
-                    .key(uniqueFilename)
-                    .contentType(multipartFile.getContentType())
-                    .contentLength(multipartFile.getSize())
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
                     .build();
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(multipartFile.getInputStream(), multipartFile.getSize()));
-            return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(uniqueFilename)).toExternalForm();
-
-        } catch (IOException | SdkException e) {
+            PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                    .signatureDuration(ttl)
+                    .putObjectRequest(putObjectRequest)
+                    .build());
+            return new PresignedUpload(key, presigned.url().toExternalForm(), presigned.expiration());
+        } catch (SdkException e) {
             throw new GeneralException(ErrorStatus.S3_UPLOAD_FAILED);
         }
     }
 
+    public String getFileUrl(String key) {
+        return urlOf(key);
+    }
+
+    private String urlOf(String key) {
+        return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(key)).toExternalForm();
+    }
+
+    // 객체를 스트림으로 받아 target 파일에 쓴다. 객체 전체를 힙에 올리지 않는다
+    public void downloadTo(String fileUrl, Path target) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(extractKeyFromUrl(fileUrl))
+                .build();
+
+        try (ResponseInputStream<GetObjectResponse> object = s3Client.getObject(getObjectRequest)) {
+            Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (SdkException | IOException e) {
+            throw new GeneralException(ErrorStatus.S3_DOWNLOAD_FAILED);
+        }
+    }
+
     public void deleteFile(String fileUrl) {
         try {
             String key = extractKeyFromUrl(fileUrl);
@@ -62,17 +172,23 @@ public class S3UploadService {
         }
     }
 
-    private String createUniqueFilename(String originalFilename) {
-        String extension = "";
+    // 삭제 큐에 넣고 바로 돌아간다. 실제 삭제는 S3DeletionQueue 가 DeleteObjects 로 모아서 처리한다
+    public void deleteFilesLater(Collection<String> fileUrls) {
+        s3DeletionQueue.enqueue(fileUrls.stream().map(this::extractKeyFromUrl).distinct().toList());
+    }
+
+    private String extensionOf(String originalFilename) {
         int dotIndex = originalFilename.lastIndexOf('.');
-        if (dotIndex >= 0) {
-            extension = originalFilename.substring(dotIndex);
-        }
-        return UUID.randomUUID() + extension;
+        return dotIndex >= 0 ? originalFilename.substring(dotIndex).toLowerCase(Locale.ROOT) : "";
     }
 
+    // virtual-hosted (https://bucket.s3.../key) 와 path-style (https://endpoint/bucket/key) URL 모두 처리한다
     private String extractKeyFromUrl(String fileUrl) {
-        // filname.jpg 추출
-        return fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+        String path = URI.create(fileUrl).getPath();
+        String key = path.startsWith("/") ? path.substring(1) : path;
+        if (key.startsWith(bucketName + "/")) {
+            key = key.substring(bucketName.length() + 1);
+        }
+        return key;
     }
 }
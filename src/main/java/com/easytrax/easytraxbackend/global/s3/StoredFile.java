@@ -0,0 +1,8 @@
+package com.easytrax.easytraxbackend.global.s3;
+
+/**
+ * 업로드 결과. created 가 false 면 같은 내용의 객체가 이미 있어 PUT 을 생략한 것이며,
+ * 다른 데이터가 같은 객체를 참조하고 있을 수 있으므로 함부로 지우면 안 된다.
+ */
+public record StoredFile(String url, String contentHash, boolean created) {
+}
@@ -2,21 +2,30 @@ package com.easytrax.easytraxbackend.hscode.api;
 
 import com.easytrax.easytraxbackend.global.code.dto.ApiResponse;
 import com.easytrax.easytraxbackend.global.security.CustomUserDetails;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeBulkClassifyRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByExtractionRequest;
 import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByImageRequest;
 import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByInfoRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByObjectKeyRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.PresignedUploadRequest;
 import com.easytrax.easytraxbackend.hscode.api.dto.request.ProductInfoExtractionRequest;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassifyResponse;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.PresignedUploadResponse;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.ProductInfoExtractionResponse;
+import com.easytrax.easytraxbackend.hscode.application.HSCodeBulkClassificationService;
 import com.easytrax.easytraxbackend.hscode.application.HSCodeService;
+import com.easytrax.easytraxbackend.hscode.application.ImageUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "HS 코드 분류 API", description = "AI 기반 HS 코드 자동 분류")
 @RestController
@@ -25,6 +34,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class HSCodeController {
 
     private final HSCodeService hsCodeService;
+    private final HSCodeBulkClassificationService hsCodeBulkClassificationService;
+    private final ImageUploadService imageUploadService;
 
     @Operation(summary = "이미지에서 제품 정보 추출", description = "제품 이미지를 업로드하여 OCR로 제품정보를 추출합니다. (HS 코드 분류 없이)")
     @PostMapping("/extract-product-info")
@@ -55,6 +66,43 @@ public class HSCodeController {
         return ResponseEntity.ok(ApiResponse.onSuccess(response));
     }
 
+    @Operation(summary = "이미지 직접 업로드 URL 발급", description = "이미지를 S3 에 직접 올릴 수 있는 presigned PUT URL 을 발급합니다. "
+            + "업로드 시 요청한 Content-Type, Content-Length 를 그대로 보내야 하며, 받은 objectKey 로 분류를 요청합니다.")
+    @PostMapping("/uploads")
+    public ResponseEntity<ApiResponse<PresignedUploadResponse>> issueUploadUrl(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "업로드할 파일 정보", required = true)
+            @Valid @RequestBody PresignedUploadRequest request) {
+
+        PresignedUploadResponse response = imageUploadService.issueUploadUrl(userDetails.getUserId(), request);
+        
+        return ResponseEntity.ok(ApiResponse.onSuccess(response));
+    }
+
+    @Operation(summary = "직접 업로드한 이미지 기반 HS 코드 분류", description = "presigned URL 로 업로드한 이미지의 objectKey 로 OCR 과 HS 코드 분류를 수행합니다.")
+    @PostMapping("/classify-by-object-key")
+    public ResponseEntity<ApiResponse<HSCodeClassifyResponse>> classifyByObjectKey(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "분류 요청 정보", required = true)
+            @Valid @RequestBody HSCodeClassifyByObjectKeyRequest request) {
+
+        HSCodeClassifyResponse response = hsCodeService.classifyByObjectKey(userDetails.getUserId(), request);
+        
+        return ResponseEntity.ok(ApiResponse.onSuccess(response));
+    }
+
+    @Operation(summary = "추출 결과 기반 HS 코드 분류", description = "extract-product-info 로 받은 추출 결과 ID 로 HS 코드를 분류합니다. 이미지를 다시 업로드하지 않습니다.")
+    @PostMapping("/classify-by-extraction")
+    public ResponseEntity<ApiResponse<HSCodeClassifyResponse>> classifyByExtraction(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "분류 요청 정보", required = true)
+            @Valid @RequestBody HSCodeClassifyByExtractionRequest request) {
+
+        HSCodeClassifyResponse response = hsCodeService.classifyByExtraction(userDetails.getUserId(), request);
+        
+        return ResponseEntity.ok(ApiResponse.onSuccess(response));
+    }
+
     @Operation(summary = "수동 입력 기반 HS 코드 분류", description = "제품 정보를 직접 입력하여 HS 코드를 분류합니다.")
     @PostMapping("/classify-by-info")
     public ResponseEntity<ApiResponse<HSCodeClassifyResponse>> classifyByInfo(
@@ -67,6 +115,23 @@ public class HSCodeController {
         return ResponseEntity.ok(ApiResponse.onSuccess(response));
     }
 
+    @Operation(summary = "대량 HS 코드 분류", description = "CSV 또는 JSONL 파일의 제품 목록을 분류하여 저장하고, 행 단위 결과를 JSON Lines 로 순차 반환합니다. "
+            + "CSV 는 첫 줄에 productName, purpose, description, material, originCountry, targetCountry 헤더가 필요합니다.")
+    @PostMapping(value = "/classify-bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> classifyBulk(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "제품 목록 파일 (CSV, JSONL)", required = true)
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "대량 분류 요청 정보", required = true)
+            @Valid @RequestPart("request") HSCodeBulkClassifyRequest request) {
+
+        StreamingResponseBody body = hsCodeBulkClassificationService.classify(userDetails.getUserId(), request, file);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @Operation(summary = "제품 정보 조회", description = "저장된 제품 정보와 HS 코드 분류 결과를 조회합니다.")
     @GetMapping("/product-info/{productInfoId}")
     public ResponseEntity<ApiResponse<HSCodeClassifyResponse>> getProductInfo(
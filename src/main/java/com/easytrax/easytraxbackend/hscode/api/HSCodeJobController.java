@@ -0,0 +1,84 @@
+package com.easytrax.easytraxbackend.hscode.api;
+
+import com.easytrax.easytraxbackend.global.code.dto.ApiResponse;
+import com.easytrax.easytraxbackend.global.code.status.SuccessStatus;
+import com.easytrax.easytraxbackend.global.security.CustomUserDetails;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByImageRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByObjectKeyRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.ClassificationJobResponse;
+import com.easytrax.easytraxbackend.hscode.application.ClassificationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag(name = "HS 코드 분류 작업 API", description = "이미지 기반 HS 코드 분류를 비동기 작업으로 처리")
+@RestController
+@RequestMapping("/api/hs-codes/jobs")
+@RequiredArgsConstructor
+public class HSCodeJobController {
+
+    private final ClassificationJobService classificationJobService;
+
+    @Operation(summary = "이미지 기반 HS 코드 분류 작업 등록", description = "제품 이미지를 업로드하고 분류 작업을 큐에 등록합니다. 작업 ID 를 즉시 반환합니다.")
+    @PostMapping("/classify-by-image")
+    public CompletableFuture<ResponseEntity<ApiResponse<ClassificationJobResponse>>> submitClassifyByImage(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "제품 이미지 파일 (JPG, PNG, 최대 10MB)", required = true)
+            @RequestPart("image") MultipartFile imageFile,
+            @Parameter(description = "분류 요청 정보", required = true)
+            @Valid @RequestPart("request") HSCodeClassifyByImageRequest request) {
+
+        // S3 업로드가 끝나는 동안 요청 스레드를 붙잡지 않는다
+        return classificationJobService.submitImageClassification(
+                        userDetails.getUserId(), request.projectId(), imageFile, request.originCountry(), request.targetCountry())
+                .thenApply(response -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.onSuccess(SuccessStatus.ACCEPTED, response)));
+    }
+
+    @Operation(summary = "직접 업로드한 이미지 기반 HS 코드 분류 작업 등록", description = "presigned URL 로 업로드한 이미지의 objectKey 로 분류 작업을 큐에 등록합니다.")
+    @PostMapping("/classify-by-object-key")
+    public ResponseEntity<ApiResponse<ClassificationJobResponse>> submitClassifyByObjectKey(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "분류 요청 정보", required = true)
+            @Valid @RequestBody HSCodeClassifyByObjectKeyRequest request) {
+
+        ClassificationJobResponse response = classificationJobService.submitObjectKeyClassification(
+                userDetails.getUserId(), request);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.onSuccess(SuccessStatus.ACCEPTED, response));
+    }
+
+    @Operation(summary = "분류 작업 상태 조회", description = "분류 작업의 상태와 완료 시 분류 결과를 조회합니다.")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ClassificationJobResponse>> getJob(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "작업 ID", required = true)
+            @PathVariable String jobId) {
+
+        ClassificationJobResponse response = classificationJobService.findJob(userDetails.getUserId(), jobId);
+
+        return ResponseEntity.ok(ApiResponse.onSuccess(response));
+    }
+
+    @Operation(summary = "분류 작업 상태 구독", description = "SSE 로 분류 작업의 상태 변경을 받습니다. 완료 또는 실패 시 연결이 종료됩니다.")
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeJob(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Parameter(description = "작업 ID", required = true)
+            @PathVariable String jobId) {
+
+        return classificationJobService.subscribe(userDetails.getUserId(), jobId);
+    }
+}
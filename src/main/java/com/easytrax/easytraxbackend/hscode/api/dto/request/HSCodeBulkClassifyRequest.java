@@ -0,0 +1,19 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.request;
+
+import com.easytrax.easytraxbackend.project.domain.Country;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "대량 HS 코드 분류 요청")
+public record HSCodeBulkClassifyRequest(
+        @Schema(description = "프로젝트 ID", example = "1")
+        @NotNull(message = "프로젝트 ID는 필수입니다")
+        Long projectId,
+
+        @Schema(description = "행에 원산지가 없을 때 사용할 기본 원산지", example = "KOREA")
+        Country originCountry,
+
+        @Schema(description = "행에 수출 대상국이 없을 때 사용할 기본 수출 대상국", example = "CHINA")
+        Country targetCountry
+) {
+}
@@ -0,0 +1,19 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.request;
+
+import com.easytrax.easytraxbackend.project.domain.Country;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(description = "추출 결과 기반 HS 코드 분류 요청")
+public record HSCodeClassifyByExtractionRequest(
+        @Schema(description = "extract-product-info 응답의 추출 결과 ID", example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+        @NotBlank(message = "추출 결과 ID는 필수입니다")
+        String extractionId,
+
+        @Schema(description = "원산지", example = "KOREA")
+        Country originCountry,
+
+        @Schema(description = "수출 대상국", example = "CHINA")
+        Country targetCountry
+) {
+}
@@ -0,0 +1,24 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.request;
+
+import com.easytrax.easytraxbackend.project.domain.Country;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "직접 업로드한 이미지 기반 HS 코드 분류 요청")
+public record HSCodeClassifyByObjectKeyRequest(
+        @Schema(description = "업로드 URL 발급 시 받은 객체 키", example = "uploads/1/7c9e6679-7425-40de-944b-e07fc1f90ae7.jpg")
+        @NotBlank(message = "객체 키는 필수입니다")
+        String objectKey,
+
+        @Schema(description = "프로젝트 ID", example = "1")
+        @NotNull(message = "프로젝트 ID는 필수입니다")
+        Long projectId,
+
+        @Schema(description = "원산지", example = "KOREA")
+        Country originCountry,
+
+        @Schema(description = "수출 대상국", example = "CHINA")
+        Country targetCountry
+) {
+}
@@ -0,0 +1,23 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@Schema(description = "이미지 직접 업로드 URL 발급 요청")
+public record PresignedUploadRequest(
+        @Schema(description = "파일 이름", example = "ramen.jpg")
+        @NotBlank(message = "파일 이름은 필수입니다")
+        String fileName,
+
+        @Schema(description = "파일 형식 (업로드 시 같은 Content-Type 을 보내야 합니다)", example = "image/jpeg")
+        @NotBlank(message = "파일 형식은 필수입니다")
+        String contentType,
+
+        @Schema(description = "파일 크기 (bytes, 업로드 시 같은 Content-Length 를 보내야 합니다)", example = "524288")
+        @NotNull(message = "파일 크기는 필수입니다")
+        @Positive(message = "파일 크기는 0보다 커야 합니다")
+        Long contentLength
+) {
+}
@@ -0,0 +1,32 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.response;
+
+import com.easytrax.easytraxbackend.hscode.application.ClassificationJob;
+import com.easytrax.easytraxbackend.hscode.domain.ClassificationJobStage;
+import com.easytrax.easytraxbackend.hscode.domain.ClassificationJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "비동기 HS 코드 분류 작업 응답")
+public record ClassificationJobResponse(
+        @Schema(description = "작업 ID", example = "0b6f1a52-7c1e-4d7a-9b1b-3f0c2f0c9a11")
+        String jobId,
+
+        @Schema(description = "작업 상태", example = "QUEUED")
+        ClassificationJobStatus status,
+
+        @Schema(description = "파이프라인 진행 단계", example = "OCR_COMPLETED")
+        ClassificationJobStage stage,
+
+        @Schema(description = "추출된 제품 정보 (OCR 완료 후, 분류 전에도 제공)")
+        ProductOcrResult ocrResult,
+
+        @Schema(description = "분류 결과 (완료 시)")
+        HSCodeClassifyResponse result,
+
+        @Schema(description = "실패 사유 (실패 시)", example = "서버 에러, 관리자에게 문의 바랍니다.")
+        String error
+) {
+    public static ClassificationJobResponse from(ClassificationJob job) {
+        return new ClassificationJobResponse(job.jobId(), job.status(), job.stage(), job.ocrResult(), job.result(),
+                job.error());
+    }
+}
@@ -0,0 +1,31 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "대량 HS 코드 분류의 행 단위 결과 (JSON Lines 한 줄)")
+public record HSCodeBulkClassifyResult(
+        @Schema(description = "입력 파일의 행 번호 (헤더 제외, 1부터)", example = "1")
+        Long rowNumber,
+
+        @Schema(description = "저장된 제품 정보 ID", example = "1")
+        Long productInfoId,
+
+        @Schema(description = "제품명", example = "신라면")
+        String productName,
+
+        @Schema(description = "분류된 HS 코드", example = "1902301000")
+        String classifiedHsCode,
+
+        @Schema(description = "분류 신뢰도 (0.0-1.0)", example = "0.95")
+        Double classificationConfidence,
+
+        @Schema(description = "분류 근거", example = "식품 카테고리 매칭: 라면 (즉석식품)")
+        String reason,
+
+        @Schema(description = "행 처리 실패 사유 (성공 시 null)", example = "제품명은 필수입니다")
+        String error
+) {
+    public static HSCodeBulkClassifyResult failure(long rowNumber, String productName, String error) {
+        return new HSCodeBulkClassifyResult(rowNumber, null, productName, null, null, null, error);
+    }
+}
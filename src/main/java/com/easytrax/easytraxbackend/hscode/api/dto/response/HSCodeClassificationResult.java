@@ -13,6 +13,9 @@ public record HSCodeClassificationResult(
         Double confidence,
 
         @Schema(description = "분류 근거", example = "제품명과 재질 정보를 종합하여 인스턴트 라면으로 분류")
-        String reason
+        String reason,
+
+        @Schema(description = "AI 호출 없이 키워드/BM25 점수로 확정했는지 여부", example = "false")
+        boolean aiBypassed
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.easytrax.easytraxbackend.hscode.api.dto.response;
+
+import com.easytrax.easytraxbackend.global.s3.PresignedUpload;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Schema(description = "이미지 직접 업로드 URL 응답")
+public record PresignedUploadResponse(
+        @Schema(description = "객체 키 (분류 요청에 사용)", example = "uploads/1/7c9e6679-7425-40de-944b-e07fc1f90ae7.jpg")
+        String objectKey,
+
+        @Schema(description = "업로드 URL (PUT)", example = "https://easytrax-bucket.s3.ap-northeast-2.amazonaws.com/uploads/1/...")
+        String uploadUrl,
+
+        @Schema(description = "HTTP 메서드", example = "PUT")
+        String method,
+
+        @Schema(description = "URL 만료 시각", example = "2025-09-07T10:10:00")
+        LocalDateTime expiresAt
+) {
+    public static PresignedUploadResponse from(PresignedUpload upload) {
+        return new PresignedUploadResponse(
+                upload.key(),
+                upload.url(),
+                "PUT",
+                LocalDateTime.ofInstant(upload.expiresAt(), ZoneId.systemDefault())
+        );
+    }
+}
@@ -4,6 +4,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "이미지에서 추출된 제품 정보 응답")
 public record ProductInfoExtractionResponse(
+        @Schema(description = "추출 결과 ID (classify-by-extraction 에 사용, 일정 시간 후 만료)", example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+        String extractionId,
+
         @Schema(description = "제품명", example = "신라면")
         String productName,
 
@@ -22,8 +25,9 @@ public record ProductInfoExtractionResponse(
         @Schema(description = "OCR 신뢰도 (0.0-1.0)", example = "0.90")
         Double confidenceScore
 ) {
-    public static ProductInfoExtractionResponse from(ProductOcrResult ocrResult, String imageUrl) {
+    public static ProductInfoExtractionResponse from(String extractionId, ProductOcrResult ocrResult, String imageUrl) {
         return new ProductInfoExtractionResponse(
+                extractionId,
                 ocrResult.productName(),
                 ocrResult.purpose(),
                 ocrResult.description(),
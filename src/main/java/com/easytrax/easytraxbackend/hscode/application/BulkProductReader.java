@@ -0,0 +1,212 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
+import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.project.domain.Country;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 대량 분류용 CSV / JSONL 파일을 한 행씩 읽는다. 파일 전체를 메모리에 올리지 않는다.
+ * CSV 는 첫 줄이 헤더이며 productName, purpose, description, material, originCountry, targetCountry 열을 인식한다.
+ */
+public class BulkProductReader implements Closeable {
+
+    private static final int MAX_PRODUCT_NAME_LENGTH = 200;
+
+    public record Row(long rowNumber, String productName, String purpose, String description, String material,
+                      Country originCountry, Country targetCountry, String error) {
+    }
+
+    private enum Format {
+        CSV, JSONL
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final Country defaultOrigin;
+    private final Country defaultTarget;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, Integer> csvHeader;
+    private long rowNumber;
+
+    private BulkProductReader(InputStream inputStream, Format format, Country defaultOrigin, Country defaultTarget) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.defaultOrigin = defaultOrigin;
+        this.defaultTarget = defaultTarget;
+    }
+
+    public static BulkProductReader open(InputStream inputStream, String filename, String contentType,
+                                         Country defaultOrigin, Country defaultTarget) {
+        return new BulkProductReader(inputStream, detectFormat(filename, contentType), defaultOrigin, defaultTarget);
+    }
+
+    private static Format detectFormat(String filename, String contentType) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+
+        if (name.endsWith(".csv") || type.contains("csv")) {
+            return Format.CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || type.contains("ndjson") || type.contains("jsonl")) {
+            return Format.JSONL;
+        }
+        throw new GeneralException(ErrorStatus.INVALID_FILE_TYPE);
+    }
+
+    // 파일 끝이면 null
+    public Row next() throws IOException {
+        return format == Format.CSV ? nextCsvRow() : nextJsonRow();
+    }
+
+    private Row nextJsonRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            line = stripBom(line);
+        } while (line.isBlank());
+
+        rowNumber++;
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return toRow(text(node, "productName"), text(node, "purpose"), text(node, "description"),
+                    text(node, "material"), text(node, "originCountry"), text(node, "targetCountry"));
+        } catch (IOException e) {
+            return new Row(rowNumber, null, null, null, null, null, null, "JSON 형식이 올바르지 않습니다");
+        }
+    }
+
+    private Row nextCsvRow() throws IOException {
+        if (csvHeader == null) {
+            List<String> header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            csvHeader = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                csvHeader.put(stripBom(header.get(i)).trim(), i);
+            }
+        }
+
+        List<String> fields;
+        do {
+            fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        rowNumber++;
+        return toRow(column(fields, "productName"), column(fields, "purpose"), column(fields, "description"),
+                column(fields, "material"), column(fields, "originCountry"), column(fields, "targetCountry"));
+    }
+
+    // RFC 4180: 따옴표로 감싼 필드 안의 쉼표, 줄바꿈, "" 이스케이프를 처리한다
+    private List<String> readCsvRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            field.append('\n');
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Row toRow(String productName, String purpose, String description, String material,
+                      String originCountry, String targetCountry) {
+        if (productName == null || productName.isBlank()) {
+            return new Row(rowNumber, productName, null, null, null, null, null, "제품명은 필수입니다");
+        }
+        if (productName.length() > MAX_PRODUCT_NAME_LENGTH) {
+            return new Row(rowNumber, productName, null, null, null, null, null, "제품명은 200자를 초과할 수 없습니다");
+        }
+
+        try {
+            return new Row(rowNumber, productName.trim(), blankToNull(purpose), blankToNull(description),
+                    blankToNull(material), country(originCountry, defaultOrigin), country(targetCountry, defaultTarget),
+                    null);
+        } catch (IllegalArgumentException e) {
+            return new Row(rowNumber, productName, null, null, null, null, null, "국가 코드가 올바르지 않습니다");
+        }
+    }
+
+    private String column(List<String> fields, String name) {
+        Integer index = csvHeader.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Country country(String value, Country defaultValue) {
+        return value == null || value.isBlank() ? defaultValue : Country.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String stripBom(String value) {
+        return !value.isEmpty() && value.charAt(0) == '\uFEFF' ? value.substring(1) : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,144 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassificationResult;
+import com.easytrax.easytraxbackend.hscode.domain.search.HangulNGramTokenizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 분류 결과 2단 캐시: 노드 내 LRU(크기/TTL 제한) + Redis 공유 캐시.
+ * 키에 HS 카탈로그 버전을 포함하므로 카탈로그가 바뀌면 이전 결과는 자연히 조회되지 않는다.
+ */
+@Component
+@Slf4j
+public class ClassificationCache {
+
+    private static final String KEY_PREFIX = "hscode:classification:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final HSCodeIndex hsCodeIndex;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Duration localTtl;
+    private final Duration redisTtl;
+    private final Map<String, LocalEntry> local;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    private record LocalEntry(HSCodeClassificationResult result, long expiresAt) {
+    }
+
+    public ClassificationCache(RedisTemplate<String, String> redisTemplate,
+                               HSCodeIndex hsCodeIndex,
+                               MeterRegistry meterRegistry,
+                               @Value("${hscode.classification.cache.local-max-size:10000}") int localMaxSize,
+                               @Value("${hscode.classification.cache.local-ttl:10m}") Duration localTtl,
+                               @Value("${hscode.classification.cache.redis-ttl:24h}") Duration redisTtl) {
+        this.redisTemplate = redisTemplate;
+        this.hsCodeIndex = hsCodeIndex;
+        this.localTtl = localTtl;
+        this.redisTtl = redisTtl;
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > localMaxSize;
+            }
+        };
+
+        this.localHits = meterRegistry.counter("hscode.classification.cache", "tier", "local", "result", "hit");
+        this.localMisses = meterRegistry.counter("hscode.classification.cache", "tier", "local", "result", "miss");
+        this.redisHits = meterRegistry.counter("hscode.classification.cache", "tier", "redis", "result", "hit");
+        this.redisMisses = meterRegistry.counter("hscode.classification.cache", "tier", "redis", "result", "miss");
+    }
+
+    // 공백/대소문자 차이를 없앤 입력으로 키를 만든다
+    public String keyOf(String productName, String purpose, String description, String material) {
+        String normalized = String.join("\u001F",
+                normalize(productName), normalize(purpose), normalize(description), normalize(material));
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + hsCodeIndex.getCatalogVersion() + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    public Optional<HSCodeClassificationResult> get(String key) {
+        LocalEntry entry;
+        synchronized (local) {
+            entry = local.get(key);
+            if (entry != null && entry.expiresAt() < System.currentTimeMillis()) {
+                local.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            localHits.increment();
+            return Optional.of(entry.result());
+        }
+        localMisses.increment();
+
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached == null) {
+                redisMisses.increment();
+                return Optional.empty();
+            }
+
+            HSCodeClassificationResult result = objectMapper.readValue(cached, HSCodeClassificationResult.class);
+            redisHits.increment();
+            putLocal(key, result);
+            return Optional.of(result);
+        } catch (Exception e) {
+            log.warn("분류 캐시 Redis 조회 실패: {}", e.getMessage());
+            redisMisses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, HSCodeClassificationResult result) {
+        putLocal(key, result);
+        try {
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(result), redisTtl);
+        } catch (Exception e) {
+            log.warn("분류 캐시 Redis 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(HSCodeCatalogChangedEvent event) {
+        synchronized (local) {
+            local.clear();
+        }
+        log.info("HS 카탈로그 변경으로 로컬 분류 캐시를 비웠습니다. 버전: {}", event.catalogVersion());
+    }
+
+    private void putLocal(String key, HSCodeClassificationResult result) {
+        synchronized (local) {
+            local.put(key, new LocalEntry(result, System.currentTimeMillis() + localTtl.toMillis()));
+        }
+    }
+
+    private static String normalize(String value) {
+        return String.join(" ", HangulNGramTokenizer.words(HangulNGramTokenizer.normalize(value)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassifyResponse;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.ProductOcrResult;
+import com.easytrax.easytraxbackend.hscode.domain.ClassificationJobStage;
+import com.easytrax.easytraxbackend.hscode.domain.ClassificationJobStatus;
+import com.easytrax.easytraxbackend.project.domain.Country;
+
+// Redis 에 JSON 으로 저장되는 비동기 분류 작업
+public record ClassificationJob(
+        String jobId,
+        Long userId,
+        Long projectId,
+        String imageUrl,
+        String contentType,
+        Country originCountry,
+        Country targetCountry,
+        ClassificationJobStatus status,
+        ClassificationJobStage stage,
+        ProductOcrResult ocrResult,
+        HSCodeClassifyResponse result,
+        String error,
+        long createdAt,
+        // 이 작업을 위해 새로 올린 이미지인지. 실패하면 삭제 큐에 넣는다 (이미 있던 객체는 다른 제품 정보가 참조할 수 있다)
+        boolean ownsImage
+) {
+    public ClassificationJob withStatus(ClassificationJobStatus status, HSCodeClassifyResponse result, String error) {
+        ClassificationJobStage nextStage = status == ClassificationJobStatus.COMPLETED ? ClassificationJobStage.CLASSIFIED : stage;
+        return new ClassificationJob(jobId, userId, projectId, imageUrl, contentType, originCountry, targetCountry,
+                status, nextStage, ocrResult, result, error, createdAt, ownsImage);
+    }
+
+    public ClassificationJob withOcrResult(ProductOcrResult ocrResult) {
+        return new ClassificationJob(jobId, userId, projectId, imageUrl, contentType, originCountry, targetCountry,
+                status, ClassificationJobStage.OCR_COMPLETED, ocrResult, result, error, createdAt, ownsImage);
+    }
+}
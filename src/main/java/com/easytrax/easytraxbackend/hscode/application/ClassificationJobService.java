@@ -0,0 +1,370 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
+import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.global.s3.ContentHash;
+import com.easytrax.easytraxbackend.global.s3.S3ObjectInfo;
+import com.easytrax.easytraxbackend.global.s3.S3UploadService;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByObjectKeyRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.ClassificationJobResponse;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassifyResponse;
+import com.easytrax.easytraxbackend.hscode.domain.ClassificationJobStage;
+import com.easytrax.easytraxbackend.hscode.domain.ClassificationJobStatus;
+import com.easytrax.easytraxbackend.project.domain.Country;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 이미지 기반 분류를 비동기 작업으로 처리한다.
+ * API 노드는 이미지를 S3 에 비동기로 올린 뒤 Redis 큐에 작업을 넣고 작업 ID 를 돌려주며,
+ * 워커 노드가 큐를 비우면서 상태를 갱신하고 Redis pub/sub 으로 완료를 알린다.
+ * 업로드, OCR 완료, 분류 완료 단계마다 SSE 로 진행 상황을 보내므로 클라이언트는 분류 전에 추출 결과를 먼저 받는다.
+ * 워커는 작업을 꺼낼 때 처리 중 목록으로 원자적으로 옮기고 끝나면 지운다. 워커가 죽어 lease 가 만료된 작업은
+ * 주기적으로 큐에 다시 넣고, 최대 시도 횟수를 넘으면 실패로 처리한다.
+ * 실패한 작업이 새로 올린 이미지는 삭제 큐에 넣는다.
+ */
+@Service
+@Slf4j
+public class ClassificationJobService {
+
+    private static final String JOB_PREFIX = "hscode:job:";
+    private static final String QUEUE_KEY = "hscode:jobs:queue";
+    private static final String PROCESSING_KEY = "hscode:jobs:processing";
+    // 처리 중 작업 ID -> lease 만료 시각 (epoch millis)
+    private static final String LEASE_KEY = "hscode:jobs:leases";
+    private static final String ATTEMPTS_KEY = "hscode:jobs:attempts";
+    private static final String EVENT_CHANNEL = "hscode:jobs:events";
+    private static final String SSE_EVENT_NAME = "status";
+
+    private static final long RECLAIM_SKIPPED = 0;
+    private static final long RECLAIM_REQUEUED = 1;
+    private static final long RECLAIM_FAILED = 2;
+
+    // 처리 중 목록에서 지운 노드만 회수한다. 시도 횟수가 남아 있으면 큐에 다시 넣는다
+    private static final RedisScript<Long> RECLAIM_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('lrem', KEYS[1], 1, ARGV[1]) == 0 then return 0 end "
+                    + "redis.call('zrem', KEYS[2], ARGV[1]) "
+                    + "if redis.call('hincrby', KEYS[3], ARGV[1], 1) < tonumber(ARGV[2]) then "
+                    + "redis.call('lpush', KEYS[4], ARGV[1]) return 1 end "
+                    + "redis.call('hdel', KEYS[3], ARGV[1]) return 2",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final HSCodeService hsCodeService;
+    private final GeminiOcrService geminiOcrService;
+    private final S3UploadService s3UploadService;
+    private final ImageUploadService imageUploadService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Duration jobTtl;
+    private final long sseTimeoutMillis;
+    private final Duration leaseTimeout;
+    private final int maxAttempts;
+
+    // 이 노드에서 SSE 로 대기 중인 구독자
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public ClassificationJobService(RedisTemplate<String, String> redisTemplate,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    HSCodeService hsCodeService,
+                                    GeminiOcrService geminiOcrService,
+                                    S3UploadService s3UploadService,
+                                    ImageUploadService imageUploadService,
+                                    @Value("${hscode.jobs.ttl:24h}") Duration jobTtl,
+                                    @Value("${hscode.jobs.sse-timeout:5m}") Duration sseTimeout,
+                                    @Value("${hscode.jobs.lease-timeout:5m}") Duration leaseTimeout,
+                                    @Value("${hscode.jobs.max-attempts:3}") int maxAttempts) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.hsCodeService = hsCodeService;
+        this.geminiOcrService = geminiOcrService;
+        this.s3UploadService = s3UploadService;
+        this.imageUploadService = imageUploadService;
+        this.jobTtl = jobTtl;
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+        this.leaseTimeout = leaseTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @PostConstruct
+    void subscribeEvents() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> notifySubscribers(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EVENT_CHANNEL));
+    }
+
+    // 업로드는 비동기 클라이언트로 보내고 요청 스레드는 바로 돌려준다.
+    // 컨트롤러가 이 future 를 그대로 반환하므로 업로드가 끝날 때까지 multipart 파일이 유지된다
+    public CompletableFuture<ClassificationJobResponse> submitImageClassification(Long userId, Long projectId,
+                                                                                  MultipartFile imageFile,
+                                                                                  Country originCountry,
+                                                                                  Country targetCountry) {
+        hsCodeService.validateProjectOwnership(userId, projectId);
+        geminiOcrService.validateImageFile(imageFile);
+
+        String contentHash;
+        try {
+            contentHash = ContentHash.of(imageFile);
+        } catch (IOException e) {
+            throw new GeneralException(ErrorStatus.FILE_UPLOAD_ERROR);
+        }
+
+        return s3UploadService.uploadAsync(imageFile, contentHash)
+                .thenApply(storedFile -> enqueue(userId, projectId, storedFile.url(), imageFile.getContentType(),
+                        originCountry, targetCountry, storedFile.created()));
+    }
+
+    // presigned URL 로 직접 올린 이미지: 업로드 없이 바로 큐에 넣는다
+    public ClassificationJobResponse submitObjectKeyClassification(Long userId, HSCodeClassifyByObjectKeyRequest request) {
+        hsCodeService.validateProjectOwnership(userId, request.projectId());
+        S3ObjectInfo image = imageUploadService.resolveUploadedImage(userId, request.objectKey());
+
+        // 발급받은 키는 업로드마다 고유하므로 분류에 실패하면 지워도 된다
+        return enqueue(userId, request.projectId(), s3UploadService.getFileUrl(image.key()), image.contentType(),
+                request.originCountry(), request.targetCountry(), true);
+    }
+
+    private ClassificationJobResponse enqueue(Long userId, Long projectId, String imageUrl, String contentType,
+                                              Country originCountry, Country targetCountry, boolean ownsImage) {
+        ClassificationJob job = new ClassificationJob(UUID.randomUUID().toString(), userId, projectId, imageUrl,
+                contentType, originCountry, targetCountry, ClassificationJobStatus.QUEUED,
+                ClassificationJobStage.UPLOADED, null, null, null, System.currentTimeMillis(), ownsImage);
+        save(job);
+        redisTemplate.opsForList().leftPush(QUEUE_KEY, job.jobId());
+
+        log.info("HS 코드 분류 작업 등록: jobId={}, projectId={}", job.jobId(), projectId);
+        return ClassificationJobResponse.from(job);
+    }
+
+    public ClassificationJobResponse findJob(Long userId, String jobId) {
+        return ClassificationJobResponse.from(findOwnedJob(userId, jobId));
+    }
+
+    public SseEmitter subscribe(Long userId, String jobId) {
+        findOwnedJob(userId, jobId);
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> removeSubscriber(jobId, emitter));
+        emitter.onTimeout(() -> removeSubscriber(jobId, emitter));
+        emitter.onError(e -> removeSubscriber(jobId, emitter));
+
+        // 구독 등록 전에 끝난 작업도 놓치지 않도록 등록 후 현재 상태를 한 번 보낸다
+        load(jobId).ifPresent(job -> send(emitter, job));
+        return emitter;
+    }
+
+    // 워커: 큐에서 다음 작업 ID 를 꺼내 처리 중 목록으로 옮긴다 (BRPOPLPUSH). 대기 시간 안에 없으면 empty
+    public Optional<String> takeNext(Duration timeout) {
+        String jobId = redisTemplate.opsForList().rightPopAndLeftPush(QUEUE_KEY, PROCESSING_KEY,
+                timeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (jobId != null) {
+            renewLease(jobId);
+        }
+        return Optional.ofNullable(jobId);
+    }
+
+    // 워커: 작업 하나를 처리하고 결과를 저장한 뒤 구독자에게 알린다
+    public void process(String jobId) {
+        try {
+            run(jobId);
+        } finally {
+            release(jobId);
+        }
+    }
+
+    private void run(String jobId) {
+        Optional<ClassificationJob> loaded = load(jobId);
+        if (loaded.isEmpty()) {
+            log.warn("만료되었거나 존재하지 않는 분류 작업입니다: {}", jobId);
+            return;
+        }
+        if (loaded.get().status().isFinished()) {
+            return;
+        }
+
+        AtomicReference<ClassificationJob> job = new AtomicReference<>(
+                loaded.get().withStatus(ClassificationJobStatus.RUNNING, null, null));
+        update(job.get());
+
+        try {
+            // OCR 이 끝나면 분류를 기다리지 않고 추출 결과부터 구독자에게 보낸다
+            HSCodeClassifyResponse result = hsCodeService.classifyStoredImage(job.get().userId(), job.get().projectId(),
+                    job.get().imageUrl(), job.get().contentType(), job.get().originCountry(), job.get().targetCountry(),
+                    ocrResult -> {
+                        renewLease(jobId);
+                        update(job.updateAndGet(current -> current.withOcrResult(ocrResult)));
+                    });
+            update(job.get().withStatus(ClassificationJobStatus.COMPLETED, result, null));
+        } catch (GeneralException e) {
+            log.warn("분류 작업 실패: jobId={}, reason={}", jobId, e.getMessage());
+            fail(job.get(), e.getMessage());
+        } catch (Exception e) {
+            log.error("분류 작업 처리 중 오류 발생: jobId={}", jobId, e);
+            fail(job.get(), ErrorStatus.INTERNAL_SERVER_ERROR.getMessage());
+        }
+    }
+
+    private void fail(ClassificationJob job, String error) {
+        update(job.withStatus(ClassificationJobStatus.FAILED, null, error));
+        discardImage(job);
+    }
+
+    // 삭제 큐가 지우기 직전에 참조 여부를 다시 확인하므로, 그 사이 같은 이미지로 저장된 제품 정보가 있으면 남는다
+    private void discardImage(ClassificationJob job) {
+        if (!job.ownsImage() || job.imageUrl() == null) {
+            return;
+        }
+        try {
+            s3UploadService.deleteFilesLater(List.of(job.imageUrl()));
+        } catch (Exception e) {
+            log.warn("실패한 분류 작업 이미지 삭제 등록 실패: jobId={}, error={}", job.jobId(), e.getMessage());
+        }
+    }
+
+    // lease 가 만료된 처리 중 작업을 회수한다. 어느 노드에서 돌아도 스크립트가 한 번만 회수한다
+    @Scheduled(initialDelayString = "${hscode.jobs.reaper-interval:1m}", fixedDelayString = "${hscode.jobs.reaper-interval:1m}")
+    public void reclaimExpiredJobs() {
+        List<String> processing;
+        try {
+            processing = redisTemplate.opsForList().range(PROCESSING_KEY, 0, -1);
+        } catch (Exception e) {
+            log.warn("처리 중 분류 작업 조회 실패: {}", e.getMessage());
+            return;
+        }
+        if (processing == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (String jobId : processing) {
+            Double leaseUntil = redisTemplate.opsForZSet().score(LEASE_KEY, jobId);
+            if (leaseUntil == null) {
+                // 꺼낸 직후 lease 를 쓰기 전일 수 있으므로 한 주기 더 기다린다
+                redisTemplate.opsForZSet().addIfAbsent(LEASE_KEY, jobId, now + leaseTimeout.toMillis());
+            } else if (leaseUntil < now) {
+                reclaim(jobId);
+            }
+        }
+    }
+
+    private void reclaim(String jobId) {
+        Long outcome = redisTemplate.execute(RECLAIM_SCRIPT, List.of(PROCESSING_KEY, LEASE_KEY, ATTEMPTS_KEY, QUEUE_KEY),
+                jobId, String.valueOf(maxAttempts));
+        if (outcome == null || outcome == RECLAIM_SKIPPED) {
+            return;
+        }
+
+        Optional<ClassificationJob> job = load(jobId);
+        if (outcome == RECLAIM_REQUEUED) {
+            log.warn("응답 없는 분류 작업을 다시 큐에 넣습니다: jobId={}", jobId);
+            job.ifPresent(current -> update(current.withStatus(ClassificationJobStatus.QUEUED, null, null)));
+        } else if (outcome == RECLAIM_FAILED) {
+            log.error("분류 작업이 {}번 시도 후에도 끝나지 않아 실패 처리합니다: jobId={}", maxAttempts, jobId);
+            job.ifPresent(current -> fail(current, ErrorStatus.INTERNAL_SERVER_ERROR.getMessage()));
+        }
+    }
+
+    private void renewLease(String jobId) {
+        redisTemplate.opsForZSet().add(LEASE_KEY, jobId, System.currentTimeMillis() + leaseTimeout.toMillis());
+    }
+
+    private void release(String jobId) {
+        try {
+            redisTemplate.opsForList().remove(PROCESSING_KEY, 1, jobId);
+            redisTemplate.opsForZSet().remove(LEASE_KEY, jobId);
+            redisTemplate.opsForHash().delete(ATTEMPTS_KEY, jobId);
+        } catch (Exception e) {
+            // 남은 항목은 lease 만료 후 회수되며, 이미 끝난 작업은 다시 처리하지 않는다
+            log.warn("처리 중 분류 작업 정리 실패: jobId={}, error={}", jobId, e.getMessage());
+        }
+    }
+
+    private ClassificationJob findOwnedJob(Long userId, String jobId) {
+        return load(jobId)
+                .filter(job -> job.userId().equals(userId))
+                .orElseThrow(() -> new GeneralException(ErrorStatus.JOB_NOT_FOUND));
+    }
+
+    private void update(ClassificationJob job) {
+        save(job);
+        redisTemplate.convertAndSend(EVENT_CHANNEL, job.jobId());
+    }
+
+    private void save(ClassificationJob job) {
+        try {
+            redisTemplate.opsForValue().set(JOB_PREFIX + job.jobId(), objectMapper.writeValueAsString(job), jobTtl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("분류 작업 직렬화 실패: " + job.jobId(), e);
+        }
+    }
+
+    private Optional<ClassificationJob> load(String jobId) {
+        String json = redisTemplate.opsForValue().get(JOB_PREFIX + jobId);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, ClassificationJob.class));
+        } catch (JsonProcessingException e) {
+            log.warn("분류 작업 역직렬화 실패: jobId={}, error={}", jobId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void notifySubscribers(String jobId) {
+        List<SseEmitter> emitters = subscribers.get(jobId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        load(jobId).ifPresent(job -> emitters.forEach(emitter -> send(emitter, job)));
+    }
+
+    private void send(SseEmitter emitter, ClassificationJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(job.jobId())
+                    .name(SSE_EVENT_NAME)
+                    .data(ClassificationJobResponse.from(job)));
+            if (job.status().isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 이미 닫힌 연결
+            removeSubscriber(job.jobId(), emitter);
+        }
+    }
+
+    private void removeSubscriber(String jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
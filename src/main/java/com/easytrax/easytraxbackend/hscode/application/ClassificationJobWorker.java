@@ -0,0 +1,82 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 큐의 분류 작업을 꺼내 처리하는 워커.
+ * 기본으로는 꺼져 있고, hscode.jobs.worker.enabled=true 인 워커 노드에서만 띄운다 (application-worker.yml).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "hscode.jobs.worker.enabled", havingValue = "true")
+public class ClassificationJobWorker {
+
+    private final ClassificationJobService classificationJobService;
+    private final int threads;
+    private final Duration pollTimeout;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public ClassificationJobWorker(ClassificationJobService classificationJobService,
+                                   @Value("${hscode.jobs.worker.threads:4}") int threads,
+                                   @Value("${hscode.jobs.worker.poll-timeout:1s}") Duration pollTimeout) {
+        this.classificationJobService = classificationJobService;
+        this.threads = threads;
+        this.pollTimeout = pollTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= threads; i++) {
+            Thread thread = new Thread(this::pollLoop, "hscode-job-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+        log.info("HS 코드 분류 작업 워커 시작: threads={}", threads);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                classificationJobService.takeNext(pollTimeout).ifPresent(classificationJobService::process);
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("분류 작업 큐 조회 실패: {}", e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.domain.FoodHSCode;
+import com.easytrax.easytraxbackend.hscode.domain.search.KeywordAutomaton;
+import com.easytrax.easytraxbackend.hscode.domain.search.SubstringAutomaton;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * FoodHSCode.findByKeyword / findByMaterial 과 같은 규칙으로 제품 입력에 점수를 매긴다.
+ * 키워드 필드(제품명/용도/설명):
+ *   - 입력이 키워드 또는 한글명과 정확히 같으면 그 항목만 매칭한다
+ *   - 아니면 입력이 키워드를 포함하거나(Aho-Corasick), 키워드/한글명/영문명이 입력을 포함하면(접미사 오토마톤) 매칭한다
+ * 재질 필드: materialInfo 가 입력을 포함하면 매칭한다 (접미사 오토마톤).
+ * 두 방향 모두 카탈로그로 미리 만든 오토마톤을 입력 길이만큼 한 번 훑으므로 카탈로그 크기와 무관하다.
+ */
+@Component
+public class FoodHSCodeMatcher {
+
+    private static final FoodHSCode[] FOODS = FoodHSCode.values();
+
+    // 제품명 4, 재질 3, 용도 2, 설명 1
+    private static final int PRODUCT_NAME_WEIGHT = 4;
+    private static final int MATERIAL_WEIGHT = 3;
+    private static final int PURPOSE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // 입력이 키워드를 포함하는 경우
+    private final KeywordAutomaton keywordAutomaton;
+    // 입력과 정확히 같은 키워드/한글명 -> 항목 번호
+    private final Map<String, List<Integer>> exactTerms = new HashMap<>();
+    // 키워드/한글명/영문명이 입력을 포함하는 경우 (텍스트별로 따로 넣으므로 경계를 넘는 일치는 없다)
+    private final SubstringAutomaton containingTexts;
+    // 재질 정보가 입력을 포함하는 경우
+    private final SubstringAutomaton materialTexts;
+
+    public FoodHSCodeMatcher() {
+        KeywordAutomaton.Builder keywords = KeywordAutomaton.builder();
+        SubstringAutomaton.Builder containing = SubstringAutomaton.builder();
+        SubstringAutomaton.Builder materials = SubstringAutomaton.builder();
+
+        for (FoodHSCode food : FOODS) {
+            for (String keyword : food.getKeywords()) {
+                keywords.add(keyword, food.ordinal());
+                addExact(keyword, food);
+                containing.add(keyword, food.ordinal());
+            }
+            addExact(food.getKoreanName(), food);
+            containing.add(food.getKoreanName(), food.ordinal());
+            containing.add(food.getEnglishName(), food.ordinal());
+            materials.add(food.getMaterialInfo(), food.ordinal());
+        }
+
+        this.keywordAutomaton = keywords.build();
+        this.containingTexts = containing.build();
+        this.materialTexts = materials.build();
+    }
+
+    public List<FoodHSCode> findMatches(String productName, String purpose, String description, String material) {
+        Scores scores = new Scores();
+
+        scanKeywords(scores, productName, PRODUCT_NAME_WEIGHT);
+        scanMaterial(scores, material, MATERIAL_WEIGHT);
+        scanKeywords(scores, purpose, PURPOSE_WEIGHT);
+        scanKeywords(scores, description, DESCRIPTION_WEIGHT);
+
+        return scores.ranked();
+    }
+
+    private void scanKeywords(Scores scores, String text, int weight) {
+        String input = normalize(text);
+        if (input == null) {
+            return;
+        }
+
+        // 정확히 같은 항목이 있으면 부분 일치 항목은 무시한다
+        List<Integer> exact = exactTerms.get(input);
+        if (exact != null) {
+            exact.forEach(food -> scores.hit(food, input.length()));
+            scores.commit(weight);
+            return;
+        }
+
+        keywordAutomaton.scan(input, (food, start, end) -> scores.hit(food, end - start));
+        for (int food : containingTexts.containing(input)) {
+            scores.hit(food, input.length());
+        }
+        scores.commit(weight);
+    }
+
+    private void scanMaterial(Scores scores, String text, int weight) {
+        String input = normalize(text);
+        if (input == null) {
+            return;
+        }
+
+        for (int food : materialTexts.containing(input)) {
+            scores.hit(food, input.length());
+        }
+        scores.commit(weight);
+    }
+
+    private void addExact(String term, FoodHSCode food) {
+        if (term != null && !term.isBlank()) {
+            List<Integer> foods = exactTerms.computeIfAbsent(lower(term.trim()), k -> new ArrayList<>());
+            if (!foods.contains(food.ordinal())) {
+                foods.add(food.ordinal());
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return lower(text.trim());
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Scores {
+
+        private final int[] score = new int[FOODS.length];
+        // 동점일 때 더 긴(구체적인) 일치로 매칭된 항목을 앞에 둔다
+        private final int[] longest = new int[FOODS.length];
+        // 현재 필드에서의 일치 길이. 한 필드에서 여러 번 일치해도 가중치는 한 번만 더한다
+        private final int[] fieldHitLength = new int[FOODS.length];
+
+        private void hit(int food, int length) {
+            fieldHitLength[food] = Math.max(fieldHitLength[food], length);
+        }
+
+        private void commit(int weight) {
+            for (int food = 0; food < FOODS.length; food++) {
+                if (fieldHitLength[food] > 0) {
+                    score[food] += weight;
+                    longest[food] = Math.max(longest[food], fieldHitLength[food]);
+                }
+            }
+            Arrays.fill(fieldHitLength, 0);
+        }
+
+        private List<FoodHSCode> ranked() {
+            List<FoodHSCode> matched = new ArrayList<>();
+            for (FoodHSCode food : FOODS) {
+                if (score[food.ordinal()] > 0) {
+                    matched.add(food);
+                }
+            }
+            matched.sort(Comparator.comparingInt((FoodHSCode food) -> score[food.ordinal()]).reversed()
+                    .thenComparing(Comparator.comparingInt((FoodHSCode food) -> longest[food.ordinal()]).reversed())
+                    .thenComparingInt(FoodHSCode::ordinal));
+            return matched;
+        }
+    }
+}
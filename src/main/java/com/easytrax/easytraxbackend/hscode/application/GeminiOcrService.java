@@ -1,179 +1,260 @@
 package com.easytrax.easytraxbackend.hscode.application;
 
 import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
-import com.easytrax.easytraxbackend.global.config.GeminiConfig;
+import com.easytrax.easytraxbackend.global.config.GeminiStreamingConfig;
 import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.global.gemini.GeminiCallGuards;
+import com.easytrax.easytraxbackend.global.gemini.GeminiClient;
+import com.easytrax.easytraxbackend.global.gemini.GeminiRequestCoalescer;
+import com.easytrax.easytraxbackend.global.gemini.GeminiResponseSchema;
+import com.easytrax.easytraxbackend.global.gemini.GeminiUnavailableException;
+import com.easytrax.easytraxbackend.global.s3.ContentHash;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.ProductOcrResult;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
-import java.util.Base64;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GeminiOcrService {
 
-    private final GeminiConfig geminiConfig;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String UNKNOWN_PRODUCT = "Unknown";
+    private static final String GUARD_OPERATION = "ocr";
+    // OCR 결과 캐시 키에 들어간다. 프롬프트나 응답 스키마를 바꾸면 올려서 이전 형식의 결과를 쓰지 않게 한다
+    // v1: 자유 형식 응답, v2: JSON 스키마 응답
+    private static final String RESULT_VERSION = "v2";
+
+    // ProductOcrResult 필드 그대로 받아 바로 역직렬화한다
+    private static final Map<String, Object> GENERATION_CONFIG = GeminiResponseSchema.jsonGenerationConfig(
+            GeminiResponseSchema.object(
+                    Map.entry("productName", GeminiResponseSchema.string("제품명")),
+                    Map.entry("purpose", GeminiResponseSchema.string("용도 (예: 식품, 화장품, 전자제품 등)")),
+                    Map.entry("description", GeminiResponseSchema.string("제품에 대한 상세 설명")),
+                    Map.entry("material", GeminiResponseSchema.string("재질 또는 원료 (예: 플라스틱, 금속, 면 등)")),
+                    Map.entry("confidenceScore", GeminiResponseSchema.number("추출 신뢰도 (0.0-1.0)"))));
+
+    private final GeminiClient geminiClient;
+    private final GeminiRequestCoalescer geminiRequestCoalescer;
+    private final GeminiCallGuards geminiCallGuards;
+    private final ImagePreprocessor imagePreprocessor;
+    private final OcrResultCache ocrResultCache;
+    private final NearDuplicateImageIndex nearDuplicateImageIndex;
+    private final GeminiStreamingConfig streamingConfig;
 
     public ProductOcrResult extractProductInfo(MultipartFile imageFile) {
         try {
             validateImageFile(imageFile);
-            String base64Image = encodeImageToBase64(imageFile);
-            String response = callGeminiApi(base64Image, imageFile.getContentType());
-            return parseGeminiResponse(response);
+            return extract(imageFile, imageFile.getContentType(), imageFile.getSize(), ContentHash.of(imageFile));
+        } catch (GeneralException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Gemini OCR 처리 중 오류 발생: {}", e.getMessage(), e);
             throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    private void validateImageFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new GeneralException(ErrorStatus.FILE_IS_EMPTY);
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new GeneralException(ErrorStatus.INVALID_FILE_TYPE);
+    // 호출 측에서 이미 내용 해시를 계산한 경우 (S3 업로드와 공유)
+    public ProductOcrResult extractProductInfo(MultipartFile imageFile, String contentHash) {
+        try {
+            validateImageFile(imageFile);
+            return extract(imageFile, imageFile.getContentType(), imageFile.getSize(), contentHash);
+        } catch (GeneralException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Gemini OCR 처리 중 오류 발생: {}", e.getMessage(), e);
+            throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
         }
+    }
 
-        if (file.getSize() > 10 * 1024 * 1024) {
-            throw new GeneralException(ErrorStatus.FILE_SIZE_EXCEEDED);
+    // S3 에 저장된 이미지를 임시 파일로 내려받아 처리하는 경우. 해시, 전처리, 요청 본문이 각자 파일을 스트림으로 읽는다
+    public ProductOcrResult extractProductInfo(Path imageFile, String contentType) {
+        try {
+            long size = Files.size(imageFile);
+            validateImage(size, contentType);
+            FileSystemResource image = new FileSystemResource(imageFile);
+            return extract(image, contentType, size, ContentHash.of(image));
+        } catch (GeneralException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Gemini OCR 처리 중 오류 발생: {}", e.getMessage(), e);
+            throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    private String encodeImageToBase64(MultipartFile file) throws IOException {
-        byte[] imageBytes = file.getBytes();
-        return Base64.getEncoder().encodeToString(imageBytes);
-    }
+    // 같은 내용의 이미지는 캐시된 결과를 쓰고 Gemini 를 호출하지 않는다
+    private ProductOcrResult extract(InputStreamSource image, String contentType, long size, String contentHash) {
+        String model = geminiClient.getModel();
+        Optional<ProductOcrResult> cached = ocrResultCache.get(model, RESULT_VERSION, contentHash);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-    private String callGeminiApi(String base64Image, String mimeType) {
-        String url = String.format("%s/v1beta/models/%s:generateContent",
-                geminiConfig.getBaseUrl(), geminiConfig.getModel());
+        ImagePreprocessor.ProcessedImage processed = imagePreprocessor.process(image, contentType, size);
+        Long perceptualHash = processed.perceptualHash();
+        if (perceptualHash != null) {
+            Optional<ProductOcrResult> similar = findNearDuplicate(model, perceptualHash);
+            if (similar.isPresent()) {
+                return similar.get();
+            }
+        }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("x-goog-api-key", geminiConfig.getKey());
+        String response = callGeminiApi(processed.source(), processed.contentType(), contentHash);
+        ProductOcrResult result = parseProductInfo(response);
 
-        Map<String, Object> requestBody = createGeminiRequestBody(base64Image, mimeType);
+        // 파싱 실패로 만든 기본값은 저장하지 않는다
+        if (!UNKNOWN_PRODUCT.equals(result.productName())) {
+            ocrResultCache.put(model, RESULT_VERSION, contentHash, result);
+            if (perceptualHash != null) {
+                nearDuplicateImageIndex.add(perceptualHash, contentHash);
+            }
+        }
+        return result;
+    }
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+    // 거의 같은 사진의 OCR 결과를 신뢰도를 깎아 재사용한다. 재사용 결과는 다시 색인하지 않아 감점이 누적되지 않는다
+    private Optional<ProductOcrResult> findNearDuplicate(String model, long perceptualHash) {
+        return nearDuplicateImageIndex.findNearest(perceptualHash)
+                .flatMap(similarContentHash -> ocrResultCache.get(model, RESULT_VERSION, similarContentHash))
+                .map(similar -> ProductOcrResult.builder()
+                        .productName(similar.productName())
+                        .purpose(similar.purpose())
+                        .description(similar.description())
+                        .material(similar.material())
+                        .confidenceScore(Math.max(0.0, (similar.confidenceScore() == null ? 0.5 : similar.confidenceScore())
+                                - nearDuplicateImageIndex.confidencePenalty()))
+                        .build());
+    }
 
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-            return response.getBody();
-        } catch (Exception e) {
-            log.error("Gemini API 호출 실패: {}", e.getMessage(), e);
-            throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
+    void validateImageFile(MultipartFile file) {
+        if (file == null) {
+            throw new GeneralException(ErrorStatus.FILE_IS_EMPTY);
         }
+        validateImage(file.getSize(), file.getContentType());
     }
 
-    private Map<String, Object> createGeminiRequestBody(String base64Image, String mimeType) {
-        Map<String, Object> requestBody = new HashMap<>();
+    void validateImage(long size, String contentType) {
+        if (size == 0) {
+            throw new GeneralException(ErrorStatus.FILE_IS_EMPTY);
+        }
+
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new GeneralException(ErrorStatus.INVALID_FILE_TYPE);
+        }
 
-        Map<String, Object> part1 = new HashMap<>();
-        part1.put("text", createPrompt());
+        if (size > 10 * 1024 * 1024) {
+            throw new GeneralException(ErrorStatus.FILE_SIZE_EXCEEDED);
+        }
+    }
 
-        Map<String, Object> inlineData = new HashMap<>();
-        inlineData.put("mime_type", mimeType);
-        inlineData.put("data", base64Image);
+    private String callGeminiApi(InputStreamSource image, String mimeType, String contentHash) {
+        // 같은 이미지에 대한 동시 요청은 한 번만 호출한다
+        // 스트림 모드는 응답 본문 대신 JSON 텍스트를 공유하므로 해시를 구분한다
+        String requestHash = GeminiRequestCoalescer.hash(streamingConfig.isEnabled() ? "ocr-stream" : "ocr", geminiClient.getModel(),
+                mimeType, contentHash);
+        GeminiClient.RequestBodyWriter bodyWriter = generator -> writeRequestBody(generator, image, mimeType);
+        return geminiRequestCoalescer.execute(requestHash, () -> {
+            try {
+                return geminiCallGuards.get(GUARD_OPERATION).execute(() -> streamingConfig.isEnabled()
+                        ? geminiClient.streamFirstJson(GUARD_OPERATION, bodyWriter)
+                        : geminiClient.generateContent(GUARD_OPERATION, bodyWriter));
+            } catch (GeminiUnavailableException e) {
+                // Gemini 장애 중에는 기다리지 않고 바로 알린다
+                log.warn("Gemini OCR 호출 생략: {}", e.getMessage());
+                throw new GeneralException(ErrorStatus.SERVICE_UNAVAILABLE);
+            } catch (Exception e) {
+                log.error("Gemini API 호출 실패: {}", e.getMessage(), e);
+                throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
+    }
 
-        Map<String, Object> part2 = new HashMap<>();
-        part2.put("inline_data", inlineData);
+    // {"contents":[{"parts":[{"text":...},{"inline_data":{"mime_type":...,"data":<base64>}}]}],"generationConfig":{...}}
+    private void writeRequestBody(JsonGenerator generator, InputStreamSource image, String mimeType) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("contents");
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("parts");
 
-        Map<String, Object> content = new HashMap<>();
-        content.put("parts", List.of(part1, part2));
+        generator.writeStartObject();
+        generator.writeStringField("text", createPrompt());
+        generator.writeEndObject();
 
-        requestBody.put("contents", List.of(content));
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("inline_data");
+        generator.writeStringField("mime_type", mimeType);
+        generator.writeFieldName("data");
+        try (InputStream imageStream = image.getInputStream()) {
+            // 고정 크기 버퍼로 읽으면서 바로 base64 로 쓴다
+            generator.writeBinary(imageStream, -1);
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
 
-        return requestBody;
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeObjectField("generationConfig", GENERATION_CONFIG);
+        generator.writeEndObject();
     }
 
     private String createPrompt() {
         return """
-                이미지에서 제품 정보를 추출하여 JSON 형태로 응답해주세요.
-                
-                다음 형식으로 응답해주세요:
-                {
-                  "productName": "제품명",
-                  "purpose": "용도 (예: 식품, 화장품, 전자제품 등)",
-                  "description": "제품에 대한 상세 설명",
-                  "material": "재질 또는 원료 (예: 플라스틱, 금속, 면 등)",
-                  "confidenceScore": 0.95
-                }
+                이미지에서 제품명, 용도, 상세 설명, 재질(또는 원료)을 추출해주세요.
                 
                 만약 이미지에서 제품 정보를 명확하게 식별할 수 없다면 confidenceScore를 낮춰주세요.
                 텍스트가 없거나 제품이 명확하지 않은 경우에도 최대한 추정하여 응답해주세요.
                 """;
     }
 
-    private ProductOcrResult parseGeminiResponse(String response) {
+    // 스트림 모드는 JSON 텍스트, 아니면 generateContent 응답 본문을 받아 트리 없이 바로 ProductOcrResult 로 읽는다
+    private ProductOcrResult parseProductInfo(String response) {
+        ProductOcrResult parsed;
         try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode candidates = root.path("candidates");
-            
-            if (candidates.isArray() && candidates.size() > 0) {
-                JsonNode content = candidates.get(0).path("content");
-                JsonNode parts = content.path("parts");
-                
-                if (parts.isArray() && parts.size() > 0) {
-                    String text = parts.get(0).path("text").asText();
-                    return parseProductInfoFromText(text);
-                }
+            parsed = streamingConfig.isEnabled()
+                    ? geminiClient.readJson(response, ProductOcrResult.class)
+                    : geminiClient.readCandidateJson(response, ProductOcrResult.class);
+        } catch (IOException e) {
+            log.error("제품 정보 파싱 실패: {}", e.getMessage(), e);
+            return createUnknownResult();
+        }
+
+        if (parsed == null) {
+            log.error("Gemini 응답에 제품 정보가 없습니다");
+            if (streamingConfig.isEnabled()) {
+                return createUnknownResult();
             }
-            
-            throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
-        } catch (Exception e) {
-            log.error("Gemini 응답 파싱 실패: {}", e.getMessage(), e);
             throw new GeneralException(ErrorStatus.INTERNAL_SERVER_ERROR);
         }
-    }
 
-    private ProductOcrResult parseProductInfoFromText(String text) {
-        try {
-            String jsonText = extractJsonFromText(text);
-            JsonNode jsonNode = objectMapper.readTree(jsonText);
-            
-            return ProductOcrResult.builder()
-                    .productName(jsonNode.path("productName").asText("Unknown"))
-                    .purpose(jsonNode.path("purpose").asText())
-                    .description(jsonNode.path("description").asText())
-                    .material(jsonNode.path("material").asText())
-                    .confidenceScore(jsonNode.path("confidenceScore").asDouble(0.5))
-                    .build();
-        } catch (Exception e) {
-            log.error("제품 정보 파싱 실패: {}", e.getMessage(), e);
-            return ProductOcrResult.builder()
-                    .productName("Unknown")
-                    .purpose("")
-                    .description("")
-                    .material("")
-                    .confidenceScore(0.1)
-                    .build();
-        }
+        return ProductOcrResult.builder()
+                .productName(parsed.productName() != null ? parsed.productName() : UNKNOWN_PRODUCT)
+                .purpose(Objects.toString(parsed.purpose(), ""))
+                .description(Objects.toString(parsed.description(), ""))
+                .material(Objects.toString(parsed.material(), ""))
+                .confidenceScore(parsed.confidenceScore() != null ? parsed.confidenceScore() : 0.5)
+                .build();
     }
 
-    private String extractJsonFromText(String text) {
-        int jsonStart = text.indexOf("{");
-        int jsonEnd = text.lastIndexOf("}");
-        
-        if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-            return text.substring(jsonStart, jsonEnd + 1);
-        }
-        
-        return text;
+    private ProductOcrResult createUnknownResult() {
+        return ProductOcrResult.builder()
+                .productName(UNKNOWN_PRODUCT)
+                .purpose("")
+                .description("")
+                .material("")
+                .confidenceScore(0.1)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,332 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
+import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeBulkClassifyRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeBulkClassifyResult;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassificationResult;
+import com.easytrax.easytraxbackend.hscode.domain.ProductInfo;
+import com.easytrax.easytraxbackend.hscode.domain.repository.ProductInfoJdbcRepository;
+import com.easytrax.easytraxbackend.project.domain.repository.ProjectRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CSV / JSONL 제품 목록을 한 행씩 읽어 제한된 병렬도로 분류하고, JDBC 배치로 저장한 뒤 결과를 JSON Lines 로 흘려보낸다.
+ * 결과는 입력 행 순서대로 쓰며, 배치가 차지 않아도 flush-interval 이 지나면 모인 만큼 내보낸다.
+ * 동시에 메모리에 머무는 행은 요청마다 (병렬도 + 배치 크기) 개로 제한되므로 파일 크기와 무관하게 사용량이 일정하다.
+ */
+@Service
+@Slf4j
+public class HSCodeBulkClassificationService {
+
+    private final ProjectRepository projectRepository;
+    private final HSCodeClassificationService classificationService;
+    private final ProductInfoJdbcRepository productInfoJdbcRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int parallelism;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    // 동시에 처리하는 대량 분류 요청 수. 넘치면 응답을 시작하기 전에 거절한다
+    private final Semaphore jobs;
+    private final ThreadPoolExecutor executor;
+
+    public HSCodeBulkClassificationService(ProjectRepository projectRepository,
+                                           HSCodeClassificationService classificationService,
+                                           ProductInfoJdbcRepository productInfoJdbcRepository,
+                                           @Value("${hscode.bulk.parallelism:8}") int parallelism,
+                                           @Value("${hscode.bulk.batch-size:50}") int batchSize,
+                                           @Value("${hscode.bulk.flush-interval:1s}") Duration flushInterval,
+                                           @Value("${hscode.bulk.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.projectRepository = projectRepository;
+        this.classificationService = classificationService;
+        this.productInfoJdbcRepository = productInfoJdbcRepository;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = Math.max(1, flushInterval.toMillis());
+        this.jobs = new Semaphore(maxConcurrentJobs);
+
+        // 요청마다 병렬도만큼만 제출하므로 스레드가 모자라지 않는다. 큐는 안전장치로만 두고 넘치면 거절한다
+        AtomicInteger sequence = new AtomicInteger();
+        int threads = parallelism * maxConcurrentJobs;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "hscode-bulk-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public StreamingResponseBody classify(Long userId, HSCodeBulkClassifyRequest request, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new GeneralException(ErrorStatus.FILE_IS_EMPTY);
+        }
+        if (!projectRepository.existsByIdAndUserId(request.projectId(), userId)) {
+            throw new GeneralException(ErrorStatus.PROJECT_NOT_FOUND);
+        }
+        if (!jobs.tryAcquire()) {
+            throw new GeneralException(ErrorStatus.SERVICE_UNAVAILABLE);
+        }
+
+        // 형식 오류는 응답을 시작하기 전에 알린다
+        BulkProductReader reader;
+        try {
+            reader = BulkProductReader.open(file.getInputStream(), file.getOriginalFilename(), file.getContentType(),
+                    request.originCountry(), request.targetCountry());
+        } catch (IOException e) {
+            jobs.release();
+            throw new GeneralException(ErrorStatus.FILE_UPLOAD_ERROR);
+        } catch (RuntimeException e) {
+            jobs.release();
+            throw e;
+        }
+
+        return outputStream -> {
+            try (reader) {
+                process(reader, new ResultWriter(request.projectId(), outputStream));
+            } finally {
+                jobs.release();
+            }
+        };
+    }
+
+    private void process(BulkProductReader reader, ResultWriter writer) throws IOException {
+        Semaphore inFlight = new Semaphore(parallelism);
+        BulkProductReader.Row row;
+        long sequence = 0;
+
+        // 클라이언트 연결이 끊기면 남은 행은 읽지 않는다
+        while (!writer.aborted && (row = reader.next()) != null) {
+            long index = sequence++;
+            // 아직 쓰지 못한 행이 (병렬도 + 배치 크기) 만큼 쌓여 있으면 읽기를 멈춘다
+            acquire(writer.window, 1, writer);
+            if (row.error() != null) {
+                writer.complete(index, row, null, HSCodeBulkClassifyResult.failure(row.rowNumber(), row.productName(), row.error()));
+                continue;
+            }
+
+            // 분류 중인 행이 병렬도만큼 차 있으면 읽기를 멈춘다
+            acquire(inFlight, 1, writer);
+            BulkProductReader.Row current = row;
+            try {
+                executor.execute(() -> {
+                    try {
+                        // 연결이 끊긴 뒤에는 남은 행을 분류하지 않는다
+                        HSCodeClassificationResult result = writer.aborted ? null : classify(current);
+                        writer.complete(index, current, result, null);
+                    } catch (Exception e) {
+                        log.warn("대량 분류 {}행 처리 실패: {}", current.rowNumber(), e.getMessage());
+                        writer.complete(index, current, null,
+                                HSCodeBulkClassifyResult.failure(current.rowNumber(), current.productName(), "분류 실패"));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                writer.complete(index, current, null,
+                        HSCodeBulkClassifyResult.failure(current.rowNumber(), current.productName(), "분류 대기열 초과"));
+            }
+        }
+
+        acquire(inFlight, parallelism, writer);
+        writer.flush();
+        if (writer.aborted) {
+            log.info("대량 분류 중 클라이언트 연결이 끊겨 {}행까지 읽고 중단했습니다", sequence);
+        }
+    }
+
+    // 기다리는 동안에도 flush-interval 이 지난 결과는 내보낸다
+    private void acquire(Semaphore semaphore, int permits, ResultWriter writer) throws InterruptedIOException {
+        try {
+            while (!semaphore.tryAcquire(permits, flushIntervalMillis, TimeUnit.MILLISECONDS)) {
+                writer.flushIfDue();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("대량 분류가 중단되었습니다");
+        }
+    }
+
+    private HSCodeClassificationResult classify(BulkProductReader.Row row) {
+        return classificationService.classifyHSCode(row.productName(), row.purpose(), row.description(), row.material());
+    }
+
+    // 순서 없이 끝나는 작업 결과를 입력 순서로 맞춘 뒤, 성공 행은 배치 저장하고 한 줄씩 응답에 쓴다
+    private class ResultWriter {
+
+        private final Long projectId;
+        private final OutputStream outputStream;
+        // 읽었지만 아직 응답에 쓰지 않은 행 수를 제한한다. 응답에 쓰거나 버릴 때 돌려준다
+        private final Semaphore window = new Semaphore(parallelism + batchSize);
+        // 앞선 행을 기다리는 완료 결과 (입력 순번 → 결과)
+        private final TreeMap<Long, Completed> completed = new TreeMap<>();
+        // 순서가 맞춰져 쓰기를 기다리는 결과
+        private final List<Completed> pending = new ArrayList<>();
+        private long nextIndex;
+        private int pendingSuccesses;
+        private long pendingSince;
+        private volatile boolean aborted;
+
+        private ResultWriter(Long projectId, OutputStream outputStream) {
+            this.projectId = projectId;
+            this.outputStream = outputStream;
+        }
+
+        // result 와 failure 중 하나만 채운다. 둘 다 없으면 (연결 종료 후) 쓰지 않고 버린다
+        private synchronized void complete(long index, BulkProductReader.Row row,
+                                           HSCodeClassificationResult result, HSCodeBulkClassifyResult failure) {
+            completed.put(index, new Completed(row, result, failure));
+            while (!completed.isEmpty() && completed.firstKey() == nextIndex) {
+                if (pending.isEmpty()) {
+                    pendingSince = System.nanoTime();
+                }
+                Completed next = completed.pollFirstEntry().getValue();
+                pending.add(next);
+                if (next.result() != null) {
+                    pendingSuccesses++;
+                }
+                nextIndex++;
+            }
+
+            // 저장할 행이 없으면 기다릴 이유가 없으므로 바로 쓴다
+            if (pendingSuccesses >= batchSize || pendingSuccesses == 0) {
+                flush();
+            } else {
+                flushIfDue();
+            }
+        }
+
+        private synchronized void flushIfDue() {
+            if (!pending.isEmpty()
+                    && System.nanoTime() - pendingSince >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis)) {
+                flush();
+            }
+        }
+
+        private synchronized void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (aborted) {
+                clearPending();
+                return;
+            }
+
+            List<ProductInfo> productInfos = new ArrayList<>(pendingSuccesses);
+            for (Completed entry : pending) {
+                if (entry.result() == null) {
+                    continue;
+                }
+                BulkProductReader.Row row = entry.row();
+                HSCodeClassificationResult result = entry.result();
+                productInfos.add(ProductInfo.builder()
+                        .productName(row.productName())
+                        .purpose(row.purpose())
+                        .description(row.description())
+                        .material(row.material())
+                        .originCountry(row.originCountry())
+                        .targetCountry(row.targetCountry())
+                        .extractedFromImage(false)
+                        .classifiedHsCode(result.hsCode())
+                        .classificationConfidence(result.confidence())
+                        .build());
+            }
+
+            List<Long> ids = List.of();
+            boolean saved = true;
+            if (!productInfos.isEmpty()) {
+                try {
+                    ids = productInfoJdbcRepository.batchInsert(projectId, productInfos);
+                } catch (Exception e) {
+                    log.error("대량 분류 결과 저장 실패: {}", e.getMessage(), e);
+                    saved = false;
+                }
+            }
+
+            int saveIndex = 0;
+            for (Completed entry : pending) {
+                BulkProductReader.Row row = entry.row();
+                HSCodeClassificationResult result = entry.result();
+                if (result == null) {
+                    if (entry.failure() != null) {
+                        writeLine(entry.failure());
+                    }
+                } else if (!saved) {
+                    writeLine(HSCodeBulkClassifyResult.failure(row.rowNumber(), row.productName(), "저장 실패"));
+                } else {
+                    Long id = saveIndex < ids.size() ? ids.get(saveIndex) : null;
+                    saveIndex++;
+                    writeLine(new HSCodeBulkClassifyResult(row.rowNumber(), id,
+                            row.productName(), result.hsCode(), result.confidence(), result.reason(), null));
+                }
+            }
+            clearPending();
+            flushStream();
+        }
+
+        private void clearPending() {
+            window.release(pending.size());
+            pending.clear();
+            pendingSuccesses = 0;
+        }
+
+        // 쓰기 실패는 클라이언트 연결 종료로 보고 작업을 멈춘다. 작업 스레드로 예외를 던지지 않는다
+        private void writeLine(HSCodeBulkClassifyResult result) {
+            if (aborted) {
+                return;
+            }
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(result));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                abort(e);
+            }
+        }
+
+        private void flushStream() {
+            if (aborted) {
+                return;
+            }
+            try {
+                outputStream.flush();
+            } catch (IOException e) {
+                abort(e);
+            }
+        }
+
+        private void abort(IOException e) {
+            aborted = true;
+            log.info("대량 분류 응답 쓰기 실패, 작업을 중단합니다: {}", e.getMessage());
+        }
+    }
+
+    private record Completed(BulkProductReader.Row row, HSCodeClassificationResult result,
+                             HSCodeBulkClassifyResult failure) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+public record HSCodeCatalogChangedEvent(String catalogVersion) {
+}
@@ -1,30 +1,92 @@
 package com.easytrax.easytraxbackend.hscode.application;
 
-import com.easytrax.easytraxbackend.global.config.GeminiConfig;
+import com.easytrax.easytraxbackend.global.config.GeminiStreamingConfig;
+import com.easytrax.easytraxbackend.global.config.HSCodeClassificationConfig;
+import com.easytrax.easytraxbackend.global.gemini.GeminiCallGuards;
+import com.easytrax.easytraxbackend.global.gemini.GeminiClient;
+import com.easytrax.easytraxbackend.global.gemini.GeminiRequestCoalescer;
+import com.easytrax.easytraxbackend.global.gemini.GeminiResponseSchema;
+import com.easytrax.easytraxbackend.global.gemini.GeminiUnavailableException;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassificationResult;
 import com.easytrax.easytraxbackend.hscode.domain.FoodHSCode;
 import com.easytrax.easytraxbackend.hscode.domain.HSCode;
 import com.easytrax.easytraxbackend.hscode.domain.repository.HSCodeRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class HSCodeClassificationService {
 
+    private static final String GUARD_OPERATION = "classification";
+    private static final String BYPASS_METRIC = "hscode.classification.ai-bypass";
+    // 분류하지 못했을 때 돌려주는 자리표시 코드
+    private static final String UNCLASSIFIED_HS_CODE = "0000000000";
+
+    // HSCodeClassificationResult 필드 그대로 받아 바로 역직렬화한다
+    private static final Map<String, Object> GENERATION_CONFIG = GeminiResponseSchema.jsonGenerationConfig(
+            GeminiResponseSchema.object(
+                    Map.entry("hsCode", GeminiResponseSchema.string("후보 중 선택한 HS 코드")),
+                    Map.entry("confidence", GeminiResponseSchema.number("분류 신뢰도 (0.0-1.0)")),
+                    Map.entry("reason", GeminiResponseSchema.string("선택 이유"))));
+
+    private static final Map<String, Object> BATCH_GENERATION_CONFIG = GeminiResponseSchema.jsonGenerationConfig(
+            GeminiResponseSchema.array(GeminiResponseSchema.object(
+                    Map.entry("index", GeminiResponseSchema.integer("제품 번호")),
+                    Map.entry("hsCode", GeminiResponseSchema.string("후보 중 선택한 HS 코드")),
+                    Map.entry("confidence", GeminiResponseSchema.number("분류 신뢰도 (0.0-1.0)")),
+                    Map.entry("reason", GeminiResponseSchema.string("선택 이유")))));
+
     private final HSCodeRepository hsCodeRepository;
-    private final GeminiConfig geminiConfig;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HSCodeIndex hsCodeIndex;
+    private final FoodHSCodeMatcher foodHSCodeMatcher;
+    private final ClassificationCache classificationCache;
+    private final GeminiClient geminiClient;
+    private final GeminiRequestCoalescer geminiRequestCoalescer;
+    private final GeminiCallGuards geminiCallGuards;
+    private final MeterRegistry meterRegistry;
+    private final HSCodeClassificationConfig config;
+    private final GeminiStreamingConfig streamingConfig;
+
+    private MicroBatcher<ClassificationRequest, HSCodeClassificationResult> classificationBatcher;
+
+    private record Classification(HSCodeClassificationResult result, boolean cacheable) {
+    }
+
+    private record ClassificationRequest(String productName, String purpose, String description,
+                                         String material, List<HSCode> candidates) {
+    }
+
+    // 배치 응답 배열의 한 항목
+    private record BatchClassification(Integer index, String hsCode, Double confidence, String reason) {
+    }
+
+    @PostConstruct
+    void startBatcher() {
+        HSCodeClassificationConfig.Batch batch = config.getBatch();
+        if (batch.isEnabled()) {
+            classificationBatcher = new MicroBatcher<>("hscode-classification", this::classifyBatchWithAI,
+                    batch.getWindow(), batch.getMaxSize(), batch.getConcurrency(), batch.getQueueCapacity());
+        }
+    }
+
+    @PreDestroy
+    void stopBatcher() {
+        if (classificationBatcher != null) {
+            classificationBatcher.close();
+        }
+    }
 
     public HSCodeClassificationResult classifyHSCode(String productName, String purpose, 
                                                    String description, String material) {
@@ -36,86 +98,212 @@ public class HSCodeClassificationService {
             return createFoodHSCodeResult(foodMatches.get(0), productName, material);
         }
         
+        // 동일 입력에 대한 AI 분류 결과 재사용
+        String cacheKey = classificationCache.keyOf(productName, purpose, description, material);
+        Optional<HSCodeClassificationResult> cached = classificationCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
+        Classification classification = classifyByKeywordAndAI(productName, purpose, description, material);
+        if (classification.cacheable()) {
+            classificationCache.put(cacheKey, classification.result());
+        }
+        return classification.result();
+    }
+
+    private Classification classifyByKeywordAndAI(String productName, String purpose, 
+                                                 String description, String material) {
+        
         // 기존 DB 기반 매칭 (fallback)
         List<HSCode> keywordMatchedCodes = findByKeywordMatching(productName, purpose, description, material);
         
         if (keywordMatchedCodes.isEmpty()) {
-            return createLowConfidenceResult();
+            return new Classification(createLowConfidenceResult(), true);
+        }
+        
+        // 로컬 점수로 1위가 확실하면 Gemini 를 부르지 않는다
+        if (config.getBypass().isEnabled()) {
+            Optional<HSCodeClassificationResult> decisive = findDecisiveMatch(keywordMatchedCodes,
+                    productName, purpose, description, material);
+            meterRegistry.counter(BYPASS_METRIC, "outcome", decisive.isPresent() ? "bypassed" : "ai").increment();
+            if (decisive.isPresent()) {
+                return new Classification(decisive.get(), true);
+            }
+        }
+        
+        // Gemini 장애 중에는 호출을 기다리지 않고 바로 키워드 결과로 답한다
+        if (geminiCallGuards.get(GUARD_OPERATION).isOpen()) {
+            return new Classification(createFallbackResult(keywordMatchedCodes), false);
         }
         
-        HSCodeClassificationResult aiResult = classifyWithAI(productName, purpose, description, material, keywordMatchedCodes);
+        HSCodeClassificationResult aiResult;
+        try {
+            aiResult = classifyWithAI(productName, purpose, description, material, keywordMatchedCodes);
+        } catch (Exception e) {
+            // 일시적인 AI 장애로 인한 추정 결과는 캐시하지 않는다
+            if (isUnavailable(e)) {
+                log.warn("AI 분류 생략: {}", e.getMessage());
+            } else {
+                log.error("AI 분류 중 오류 발생: {}", e.getMessage(), e);
+            }
+            return new Classification(createFallbackResult(keywordMatchedCodes), false);
+        }
         
-        return enhanceWithKeywordScore(aiResult, keywordMatchedCodes, productName, material);
+        // 빈 응답이나 파싱 실패로 만든 기본값은 보정하거나 캐시하지 않는다 (잘린 응답 하나가 같은 입력을 하루 동안 막지 않도록)
+        if (UNCLASSIFIED_HS_CODE.equals(aiResult.hsCode())) {
+            return new Classification(createFallbackResult(keywordMatchedCodes), false);
+        }
+        
+        return new Classification(enhanceWithKeywordScore(aiResult, keywordMatchedCodes, productName, material), true);
     }
 
     private List<HSCode> findByKeywordMatching(String productName, String purpose, String description, String material) {
-        Set<HSCode> matchedCodes = new HashSet<>();
+        Set<HSCode> matchedCodes = new LinkedHashSet<>();
+        boolean indexed = hsCodeIndex.isReady();
         
         if (productName != null && !productName.trim().isEmpty()) {
-            matchedCodes.addAll(hsCodeRepository.findByProductNameContaining(productName.trim()));
+            matchedCodes.addAll(indexed
+                    ? hsCodeIndex.findByProductName(productName.trim())
+                    : hsCodeRepository.findByProductNameContaining(productName.trim()));
         }
         
         if (material != null && !material.trim().isEmpty()) {
-            matchedCodes.addAll(hsCodeRepository.findByMaterialContaining(material.trim()));
+            matchedCodes.addAll(indexed
+                    ? hsCodeIndex.findByMaterial(material.trim())
+                    : hsCodeRepository.findByMaterialContaining(material.trim()));
         }
         
         if (purpose != null && !purpose.trim().isEmpty()) {
-            matchedCodes.addAll(hsCodeRepository.findByUsageContaining(purpose.trim()));
+            matchedCodes.addAll(indexed
+                    ? hsCodeIndex.findByUsage(purpose.trim())
+                    : hsCodeRepository.findByUsageContaining(purpose.trim()));
+        }
+        
+        if (!indexed) {
+            return new ArrayList<>(matchedCodes);
         }
         
-        return new ArrayList<>(matchedCodes);
+        // BM25 순으로 정렬해 앞쪽 후보일수록 입력과 가깝도록 한다
+        return hsCodeIndex.rankByRelevance(new ArrayList<>(matchedCodes),
+                relevanceQuery(productName, purpose, description, material));
+    }
+
+    private String relevanceQuery(String productName, String purpose, String description, String material) {
+        return String.join(" ",
+                Objects.toString(productName, ""), Objects.toString(material, ""),
+                Objects.toString(purpose, ""), Objects.toString(description, ""));
     }
 
     private HSCodeClassificationResult classifyWithAI(String productName, String purpose, 
                                                     String description, String material, 
-                                                    List<HSCode> candidates) {
-        try {
-            String prompt = createClassificationPrompt(productName, purpose, description, material, candidates);
-            String response = callGeminiForClassification(prompt);
-            return parseClassificationResponse(response);
-        } catch (Exception e) {
-            log.error("AI 분류 중 오류 발생: {}", e.getMessage(), e);
-            return createFallbackResult(candidates);
+                                                    List<HSCode> candidates) throws Exception {
+        ClassificationRequest request = new ClassificationRequest(productName, purpose, description, material,
+                selectPromptCandidates(candidates));
+        if (classificationBatcher == null) {
+            return classifySingleWithAI(request);
+        }
+        
+        // 짧은 시간 창 안의 요청들과 묶어 한 번의 Gemini 호출로 처리
+        return classificationBatcher.submit(request)
+                .get(config.getBatch().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private HSCodeClassificationResult classifySingleWithAI(ClassificationRequest request) {
+        String prompt = createClassificationPrompt(request);
+        String response = callGeminiForClassification(prompt, GENERATION_CONFIG);
+        return parseClassification(response);
+    }
+
+    private List<HSCodeClassificationResult> classifyBatchWithAI(List<ClassificationRequest> requests) {
+        if (requests.size() == 1) {
+            return List.of(classifySingleWithAI(requests.get(0)));
         }
+        
+        String prompt = createBatchClassificationPrompt(requests);
+        String response = callGeminiForClassification(prompt, BATCH_GENERATION_CONFIG);
+        return parseBatchClassification(response, requests.size());
     }
 
-    private String createClassificationPrompt(String productName, String purpose, String description, 
-                                            String material, List<HSCode> candidates) {
+    private String createClassificationPrompt(ClassificationRequest request) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("다음 제품 정보를 분석하여 가장 적합한 HS 코드를 선택해주세요.\n\n");
-        prompt.append("제품 정보:\n");
-        prompt.append("- 제품명: ").append(productName).append("\n");
-        prompt.append("- 용도: ").append(purpose != null ? purpose : "미정").append("\n");
-        prompt.append("- 설명: ").append(description != null ? description : "미정").append("\n");
-        prompt.append("- 재질: ").append(material != null ? material : "미정").append("\n\n");
+        appendProductSection(prompt, request);
         
-        prompt.append("후보 HS 코드들:\n");
-        for (int i = 0; i < Math.min(candidates.size(), 10); i++) {
-            HSCode code = candidates.get(i);
-            prompt.append(String.format("%d. %s - %s\n", i + 1, code.getHsCode(), code.getKoreanName()));
-            if (code.getDescription() != null) {
-                prompt.append("   설명: ").append(code.getDescription()).append("\n");
-            }
+        return prompt.toString();
+    }
+
+    private String createBatchClassificationPrompt(List<ClassificationRequest> requests) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("다음 ").append(requests.size())
+                .append("개 제품 각각에 대해 후보 중 가장 적합한 HS 코드를 선택해주세요.\n\n");
+        
+        for (int i = 0; i < requests.size(); i++) {
+            prompt.append("### 제품 ").append(i + 1).append("\n");
+            appendProductSection(prompt, requests.get(i));
+            prompt.append("\n");
         }
         
-        prompt.append("\n다음 JSON 형식으로 응답해주세요:\n");
-        prompt.append("{\n");
-        prompt.append("  \"selectedHsCode\": \"선택된 HS 코드\",\n");
-        prompt.append("  \"confidence\": 0.95,\n");
-        prompt.append("  \"reason\": \"선택 이유\"\n");
-        prompt.append("}\n");
+        prompt.append("모든 제품에 대해 제품 번호(index)와 함께 응답해주세요.\n");
         
         return prompt.toString();
     }
 
-    private String callGeminiForClassification(String prompt) {
-        String url = String.format("%s/v1beta/models/%s:generateContent",
-                geminiConfig.getBaseUrl(), geminiConfig.getModel());
+    private void appendProductSection(StringBuilder prompt, ClassificationRequest request) {
+        prompt.append("제품 정보:\n");
+        prompt.append("- 제품명: ").append(request.productName()).append("\n");
+        prompt.append("- 용도: ").append(request.purpose() != null ? request.purpose() : "미정").append("\n");
+        prompt.append("- 설명: ").append(request.description() != null ? request.description() : "미정").append("\n");
+        prompt.append("- 재질: ").append(request.material() != null ? request.material() : "미정").append("\n\n");
+        
+        prompt.append("후보 HS 코드들:\n");
+        List<HSCode> candidates = request.candidates();
+        for (int i = 0; i < candidates.size(); i++) {
+            prompt.append(candidateLines(i + 1, candidates.get(i)));
+        }
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("x-goog-api-key", geminiConfig.getKey());
+    // 순위가 매겨진 후보에서 앞쪽 top-k 개를 후보 목록 토큰 예산 안에서 고른다. 예산과 무관하게 최소 1개는 넣는다
+    private List<HSCode> selectPromptCandidates(List<HSCode> rankedCandidates) {
+        List<HSCode> selected = new ArrayList<>(Math.min(rankedCandidates.size(), config.getPrompt().getTopK()));
+        int tokens = 0;
+        for (HSCode code : rankedCandidates) {
+            if (selected.size() >= config.getPrompt().getTopK()) {
+                break;
+            }
+            int cost = estimateTokens(candidateLines(selected.size() + 1, code));
+            if (!selected.isEmpty() && tokens + cost > config.getPrompt().getCandidateTokenBudget()) {
+                break;
+            }
+            selected.add(code);
+            tokens += cost;
+        }
+        return selected;
+    }
+
+    private static String candidateLines(int number, HSCode code) {
+        String line = String.format("%d. %s - %s\n", number, code.getHsCode(), code.getKoreanName());
+        if (code.getDescription() != null) {
+            line += "   설명: " + code.getDescription() + "\n";
+        }
+        return line;
+    }
+
+    // 대략적인 토큰 수: ASCII 는 4글자에 1개, 한글 등 그 외 문자는 글자마다 1개로 넉넉히 잡는다
+    private static int estimateTokens(String text) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return other + (ascii + 3) / 4;
+    }
 
+    private String callGeminiForClassification(String prompt, Map<String, Object> generationConfig) {
         Map<String, Object> requestBody = new HashMap<>();
         Map<String, Object> part = new HashMap<>();
         part.put("text", prompt);
@@ -124,69 +312,81 @@ public class HSCodeClassificationService {
         content.put("parts", List.of(part));
         
         requestBody.put("contents", List.of(content));
+        // JSON 모드: 설명 문장 없이 스키마에 맞는 JSON 만 출력하게 한다
+        requestBody.put("generationConfig", generationConfig);
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        // 같은 프롬프트에 대한 동시 요청은 한 번만 호출한다
+        // 스트림 모드는 응답 본문 대신 JSON 텍스트를 공유하므로 해시를 구분한다
+        String requestHash = GeminiRequestCoalescer.hash(streamingConfig.isEnabled() ? "classification-stream" : "classification",
+                geminiClient.getModel(), prompt);
+        return geminiRequestCoalescer.execute(requestHash, () -> {
+            try {
+                return geminiCallGuards.get(GUARD_OPERATION).execute(() -> streamingConfig.isEnabled()
+                        ? geminiClient.streamFirstJson(GUARD_OPERATION, requestBody)
+                        : geminiClient.generateContent(GUARD_OPERATION, requestBody));
+            } catch (GeminiUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Gemini 분류 API 호출 실패: {}", e.getMessage(), e);
+                throw e;
+            }
+        });
+    }
 
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-            return response.getBody();
-        } catch (Exception e) {
-            log.error("Gemini 분류 API 호출 실패: {}", e.getMessage(), e);
-            throw e;
-        }
+    // 배치 처리 중 거절되면 ExecutionException 에 싸여 온다
+    // Gemini 장애이거나 배치 큐가 가득 찬 경우
+    private static boolean isUnavailable(Exception e) {
+        return e instanceof GeminiUnavailableException || e.getCause() instanceof GeminiUnavailableException
+                || e.getCause() instanceof RejectedExecutionException;
     }
 
-    private HSCodeClassificationResult parseClassificationResponse(String response) {
+    // 스트림 모드는 JSON 텍스트, 아니면 generateContent 응답 본문을 받아 트리 없이 바로 레코드로 읽는다
+    private <T> T decode(String response, Class<T> type) throws IOException {
+        return streamingConfig.isEnabled() ? geminiClient.readJson(response, type) : geminiClient.readCandidateJson(response, type);
+    }
+
+    private HSCodeClassificationResult parseClassification(String response) {
         try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode candidates = root.path("candidates");
-            
-            if (candidates.isArray() && candidates.size() > 0) {
-                JsonNode content = candidates.get(0).path("content");
-                JsonNode parts = content.path("parts");
-                
-                if (parts.isArray() && parts.size() > 0) {
-                    String text = parts.get(0).path("text").asText();
-                    return parseClassificationFromText(text);
-                }
+            HSCodeClassificationResult parsed = decode(response, HSCodeClassificationResult.class);
+            if (parsed == null || parsed.hsCode() == null) {
+                return createLowConfidenceResult();
             }
             
-            return createLowConfidenceResult();
+            return HSCodeClassificationResult.builder()
+                    .hsCode(parsed.hsCode())
+                    .confidence(parsed.confidence() != null ? parsed.confidence() : 0.5)
+                    .reason(parsed.reason() != null ? parsed.reason() : "AI 분류 결과")
+                    .build();
         } catch (Exception e) {
             log.error("분류 응답 파싱 실패: {}", e.getMessage(), e);
             return createLowConfidenceResult();
         }
     }
 
-    private HSCodeClassificationResult parseClassificationFromText(String text) {
+    private List<HSCodeClassificationResult> parseBatchClassification(String response, int size) {
+        List<HSCodeClassificationResult> results = new ArrayList<>(Collections.nCopies(size, null));
         try {
-            String jsonText = extractJsonFromText(text);
-            JsonNode jsonNode = objectMapper.readTree(jsonText);
-            
-            String hsCode = jsonNode.path("selectedHsCode").asText();
-            double confidence = jsonNode.path("confidence").asDouble(0.5);
-            String reason = jsonNode.path("reason").asText("AI 분류 결과");
+            BatchClassification[] items = decode(response, BatchClassification[].class);
+            if (items == null) {
+                return results;
+            }
             
-            return HSCodeClassificationResult.builder()
-                    .hsCode(hsCode)
-                    .confidence(confidence)
-                    .reason(reason)
-                    .build();
+            // index 로 각 호출자에게 결과를 돌려준다. 누락된 항목은 null 로 남아 개별 실패 처리된다.
+            for (BatchClassification item : items) {
+                int index = (item.index() != null ? item.index() : 0) - 1;
+                if (index < 0 || index >= size || results.get(index) != null || item.hsCode() == null) {
+                    continue;
+                }
+                results.set(index, HSCodeClassificationResult.builder()
+                        .hsCode(item.hsCode())
+                        .confidence(item.confidence() != null ? item.confidence() : 0.5)
+                        .reason(item.reason() != null ? item.reason() : "AI 분류 결과")
+                        .build());
+            }
         } catch (Exception e) {
-            log.error("분류 텍스트 파싱 실패: {}", e.getMessage(), e);
-            return createLowConfidenceResult();
+            log.error("배치 분류 응답 파싱 실패: {}", e.getMessage(), e);
         }
-    }
-
-    private String extractJsonFromText(String text) {
-        int jsonStart = text.indexOf("{");
-        int jsonEnd = text.lastIndexOf("}");
-        
-        if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-            return text.substring(jsonStart, jsonEnd + 1);
-        }
-        
-        return text;
+        return results;
     }
 
     private HSCodeClassificationResult enhanceWithKeywordScore(HSCodeClassificationResult aiResult, 
@@ -208,29 +408,94 @@ public class HSCodeClassificationService {
         
         double maxScore = 0.0;
         for (HSCode code : matches) {
-            double score = 0.0;
-            
-            if (productName != null && code.getKoreanName().toLowerCase().contains(productName.toLowerCase())) {
-                score += 0.4;
+            maxScore = Math.max(maxScore, calculateKeywordMatchScore(code, productName, material));
+        }
+        
+        return Math.min(maxScore, 1.0);
+    }
+
+    private double calculateKeywordMatchScore(HSCode code, String productName, String material) {
+        double score = 0.0;
+        
+        if (productName != null && code.getKoreanName().toLowerCase().contains(productName.toLowerCase())) {
+            score += 0.4;
+        }
+        
+        if (material != null && code.getMaterialInfo() != null && 
+            code.getMaterialInfo().toLowerCase().contains(material.toLowerCase())) {
+            score += 0.3;
+        }
+        
+        if (code.getKeywords() != null) {
+            for (String keyword : code.getKeywords()) {
+                if (productName != null && productName.toLowerCase().contains(keyword.toLowerCase())) {
+                    score += 0.2;
+                }
             }
-            
-            if (material != null && code.getMaterialInfo() != null && 
-                code.getMaterialInfo().toLowerCase().contains(material.toLowerCase())) {
-                score += 0.3;
+        }
+        
+        return Math.min(score, 1.0);
+    }
+
+    // 1위 점수가 min-score 이상이고 2위와의 차이가 min-margin 이상이면 AI 없이 1위를 확정한다
+    // 동점이면 앞쪽(BM25 상위) 후보를 1위로 본다
+    private Optional<HSCodeClassificationResult> findDecisiveMatch(List<HSCode> candidates, String productName,
+                                                                 String purpose, String description, String material) {
+        HSCodeClassificationConfig.Bypass bypass = config.getBypass();
+        
+        // 짧은 제품명은 여러 품목에 우연히 걸리기 쉬워 AI 판단에 맡긴다
+        if (productName == null || productName.trim().length() < bypass.getMinProductNameLength()) {
+            return Optional.empty();
+        }
+        
+        HSCode best = null;
+        double bestScore = 0.0;
+        double secondScore = 0.0;
+        for (HSCode code : candidates) {
+            double score = calculateKeywordMatchScore(code, productName, material);
+            if (best == null || score > bestScore) {
+                secondScore = best == null ? 0.0 : bestScore;
+                best = code;
+                bestScore = score;
+            } else if (score > secondScore) {
+                secondScore = score;
             }
-            
-            if (code.getKeywords() != null) {
-                for (String keyword : code.getKeywords()) {
-                    if (productName != null && productName.toLowerCase().contains(keyword.toLowerCase())) {
-                        score += 0.2;
-                    }
-                }
+        }
+        
+        if (best == null || bestScore < bypass.getMinScore()
+                || bestScore - secondScore < bypass.getMinMargin()) {
+            return Optional.empty();
+        }
+        
+        // BM25 순위에서도 1위이고 차점과 충분히 벌어져 있어야 한다. 인덱스가 없으면 확인할 수 없으므로 AI 로 보낸다
+        Map<HSCode, Double> relevance = hsCodeIndex.scoreRelevance(candidates,
+                relevanceQuery(productName, purpose, description, material));
+        double bestRelevance = relevance.getOrDefault(best, 0.0);
+        if (bestRelevance <= 0.0) {
+            return Optional.empty();
+        }
+        double runnerUpRelevance = 0.0;
+        for (Map.Entry<HSCode, Double> entry : relevance.entrySet()) {
+            if (entry.getKey() != best) {
+                runnerUpRelevance = Math.max(runnerUpRelevance, entry.getValue());
             }
-            
-            maxScore = Math.max(maxScore, score);
+        }
+        double relevanceMargin = (bestRelevance - runnerUpRelevance) / bestRelevance;
+        if (relevanceMargin < bypass.getMinRelevanceMargin()) {
+            return Optional.empty();
         }
         
-        return Math.min(maxScore, 1.0);
+        log.info("AI 분류 생략(키워드 확정): productName={}, hsCode={}, score={}, margin={}, bm25Margin={}",
+                productName, best.getHsCode(), String.format("%.2f", bestScore),
+                String.format("%.2f", bestScore - secondScore), String.format("%.2f", relevanceMargin));
+        
+        return Optional.of(HSCodeClassificationResult.builder()
+                .hsCode(best.getHsCode())
+                .confidence(Math.min(bestScore, 0.95))
+                .reason(String.format("키워드 매칭 확정: %s (점수 %.2f, 차이 %.2f, BM25 차이 %.0f%%)",
+                        best.getKoreanName(), bestScore, bestScore - secondScore, relevanceMargin * 100))
+                .aiBypassed(true)
+                .build());
     }
 
     private HSCodeClassificationResult createFallbackResult(List<HSCode> candidates) {
@@ -247,45 +512,8 @@ public class HSCodeClassificationService {
     }
 
     private List<FoodHSCode> findFoodHSCodeMatches(String productName, String purpose, String description, String material) {
-        Map<FoodHSCode, Integer> scoreMap = new HashMap<>();
-        
-        // 제품명이 가장 높은 우선순위 (점수 4)
-        if (productName != null && !productName.trim().isEmpty()) {
-            List<FoodHSCode> productMatches = FoodHSCode.findByKeyword(productName);
-            for (FoodHSCode food : productMatches) {
-                scoreMap.put(food, scoreMap.getOrDefault(food, 0) + 4);
-            }
-        }
-        
-        // 재질 정보 (점수 3)
-        if (material != null && !material.trim().isEmpty()) {
-            List<FoodHSCode> materialMatches = FoodHSCode.findByMaterial(material);
-            for (FoodHSCode food : materialMatches) {
-                scoreMap.put(food, scoreMap.getOrDefault(food, 0) + 3);
-            }
-        }
-        
-        // 용도 (점수 2)
-        if (purpose != null && !purpose.trim().isEmpty()) {
-            List<FoodHSCode> purposeMatches = FoodHSCode.findByKeyword(purpose);
-            for (FoodHSCode food : purposeMatches) {
-                scoreMap.put(food, scoreMap.getOrDefault(food, 0) + 2);
-            }
-        }
-        
-        // 설명 (점수 1)
-        if (description != null && !description.trim().isEmpty()) {
-            List<FoodHSCode> descMatches = FoodHSCode.findByKeyword(description);
-            for (FoodHSCode food : descMatches) {
-                scoreMap.put(food, scoreMap.getOrDefault(food, 0) + 1);
-            }
-        }
-        
-        // 점수 순으로 정렬하여 반환
-        return scoreMap.entrySet().stream()
-                .sorted(Map.Entry.<FoodHSCode, Integer>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        // 제품명(4) > 재질(3) > 용도(2) > 설명(1) 가중치로 점수를 매겨 높은 순으로 반환
+        return foodHSCodeMatcher.findMatches(productName, purpose, description, material);
     }
 
     private HSCodeClassificationResult createFoodHSCodeResult(FoodHSCode foodCode, String productName, String material) {
@@ -321,7 +549,7 @@ public class HSCodeClassificationService {
 
     private HSCodeClassificationResult createLowConfidenceResult() {
         return HSCodeClassificationResult.builder()
-                .hsCode("0000000000")
+                .hsCode(UNCLASSIFIED_HS_CODE)
                 .confidence(0.1)
                 .reason("분류할 수 없음 - 수동 확인 필요")
                 .build();
@@ -0,0 +1,317 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.domain.HSCode;
+import com.easytrax.easytraxbackend.hscode.domain.repository.HSCodeRepository;
+import com.easytrax.easytraxbackend.hscode.domain.search.Bm25Index;
+import com.easytrax.easytraxbackend.hscode.domain.search.HangulNGramTokenizer;
+import com.easytrax.easytraxbackend.hscode.domain.search.NGramPostingsIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 활성 HS 코드와 키워드를 메모리에 올려두고 필드별 n-gram 역색인으로 부분 문자열 검색을 처리한다.
+ * HSCodeRepository 의 LIKE '%kw%' 쿼리(findByProductNameContaining 등)와 동일한 결과를 돌려준다.
+ * 찾은 후보는 필드 가중치를 둔 BM25 로 정렬해 프롬프트에 넣을 상위 후보를 고른다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HSCodeIndex {
+
+    private static final char KEYWORD_SEPARATOR = '\u0001';
+
+    private final HSCodeRepository hsCodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Snapshot snapshot;
+    // 현재 스냅샷을 읽을 때의 DB 체크섬. 같으면 카탈로그를 다시 읽지 않는다 (reload 안에서만 접근)
+    private String loadedChecksum;
+
+    // ranking 은 BM25F 필드 가중치: 한글명 > 키워드 > 영문명 > 재질/용도
+    private enum Field {
+        KOREAN_NAME(3.0), ENGLISH_NAME(1.5), MATERIAL(1.0), USAGE(1.0), KEYWORD(2.0);
+
+        private final double rankingWeight;
+
+        Field(double rankingWeight) {
+            this.rankingWeight = rankingWeight;
+        }
+    }
+
+    // 설명은 부분 문자열 검색 대상은 아니지만 순위에는 낮은 가중치로 반영한다
+    private static final double DESCRIPTION_WEIGHT = 0.5;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("HS 코드 인덱스 적재 실패 - DB 쿼리로 대체합니다: {}", e.getMessage(), e);
+        }
+    }
+
+    // DB 에서 직접 고친 카탈로그도 반영되도록 주기적으로 확인한다. 체크섬이 같으면 카탈로그를 읽지 않는다
+    @Scheduled(initialDelayString = "${hscode.index.refresh-interval:5m}",
+            fixedDelayString = "${hscode.index.refresh-interval:5m}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("HS 코드 인덱스 갱신 실패 - 기존 인덱스를 유지합니다: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        Snapshot previous = this.snapshot;
+        String checksum = catalogChecksum();
+        if (previous != null && checksum != null && checksum.equals(loadedChecksum)) {
+            log.debug("HS 코드 카탈로그 변경 없음: 체크섬 {}", checksum);
+            return;
+        }
+
+        List<HSCode> codes = hsCodeRepository.findAllActiveWithKeywords();
+        Snapshot loaded = Snapshot.build(codes);
+        loadedChecksum = checksum;
+
+        // 체크섬은 원문 기준이라 정규화 후 같은 내용이면 버전이 그대로일 수 있다
+        if (previous != null && previous.version.equals(loaded.version)) {
+            log.debug("HS 코드 카탈로그 변경 없음: 버전 {}", loaded.version);
+            return;
+        }
+
+        this.snapshot = loaded;
+        log.info("HS 코드 인덱스 적재 완료: {}건, 버전 {}, {}ms",
+                codes.size(), loaded.version, System.currentTimeMillis() - start);
+        eventPublisher.publishEvent(new HSCodeCatalogChangedEvent(loaded.version));
+    }
+
+    // 체크섬 쿼리를 쓸 수 없으면 (MySQL 이 아닌 DB 등) 매번 전체를 다시 읽는다
+    private String catalogChecksum() {
+        try {
+            return hsCodeRepository.findActiveCatalogChecksum();
+        } catch (Exception e) {
+            log.warn("HS 코드 카탈로그 체크섬 조회 실패 - 전체를 다시 읽습니다: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    // 카탈로그 내용으로 계산한 지문. 같은 DB 를 보는 노드끼리는 같은 값을 가진다.
+    public String getCatalogVersion() {
+        Snapshot current = snapshot;
+        return current == null ? "none" : current.version;
+    }
+
+    // findByProductNameContaining 대응: 한글명, 영문명, 키워드
+    public List<HSCode> findByProductName(String productName) {
+        return find(productName, Field.KOREAN_NAME, Field.ENGLISH_NAME, Field.KEYWORD);
+    }
+
+    // findByMaterialContaining 대응: 재질 정보, 키워드
+    public List<HSCode> findByMaterial(String material) {
+        return find(material, Field.MATERIAL, Field.KEYWORD);
+    }
+
+    // findByUsageContaining 대응: 용도 정보, 키워드
+    public List<HSCode> findByUsage(String usage) {
+        return find(usage, Field.USAGE, Field.KEYWORD);
+    }
+
+    // 후보들을 질의 텍스트에 대한 BM25 점수 순으로 정렬한다. 동점은 HS 코드 순이라 같은 입력이면 항상 같은 순서가 나온다.
+    public List<HSCode> rankByRelevance(List<HSCode> candidates, String queryText) {
+        if (candidates.size() < 2) {
+            return candidates;
+        }
+
+        Map<HSCode, Double> scores = scoreRelevance(candidates, queryText);
+        if (scores.isEmpty()) {
+            return candidates;
+        }
+
+        List<HSCode> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingDouble((HSCode code) -> scores.get(code)).reversed()
+                .thenComparing(HSCode::getHsCode));
+        return ranked;
+    }
+
+    // 후보별 BM25 점수. 인덱스가 없거나 질의에 쓸 토큰이 없으면 빈 맵
+    public Map<HSCode, Double> scoreRelevance(List<HSCode> candidates, String queryText) {
+        Snapshot current = snapshot;
+        if (current == null || candidates.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<String> queryGrams = HangulNGramTokenizer.rankingGrams(HangulNGramTokenizer.normalize(queryText));
+        if (queryGrams.isEmpty()) {
+            return Map.of();
+        }
+
+        BitSet docs = new BitSet(current.codes.size());
+        for (HSCode code : candidates) {
+            Integer doc = current.docIds.get(code);
+            if (doc != null) {
+                docs.set(doc);
+            }
+        }
+
+        double[] docScores = current.rankingIndex.score(queryGrams, docs);
+        Map<HSCode, Double> scores = new IdentityHashMap<>(candidates.size());
+        for (HSCode code : candidates) {
+            Integer doc = current.docIds.get(code);
+            scores.put(code, doc == null ? 0.0 : docScores[doc]);
+        }
+        return scores;
+    }
+
+    private List<HSCode> find(String query, Field... fields) {
+        Snapshot current = snapshot;
+        if (current == null || query == null) {
+            return List.of();
+        }
+
+        String normalized = HangulNGramTokenizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        // 질의는 필드와 무관하게 한 번만 토큰화한다
+        Set<String> queryGrams = HangulNGramTokenizer.bigrams(normalized);
+
+        BitSet matched = new BitSet(current.codes.size());
+        for (Field field : fields) {
+            matched.or(current.match(field, normalized, queryGrams));
+        }
+
+        List<HSCode> result = new ArrayList<>(matched.cardinality());
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            result.add(current.codes.get(doc));
+        }
+        return result;
+    }
+
+    private static final class Snapshot {
+
+        private final List<HSCode> codes;
+        private final String version;
+        private final Map<HSCode, Integer> docIds;
+        // [field][doc] 정규화된 원문. 키워드는 구분자로 이어 붙여 키워드 단위 포함 검사를 유지한다.
+        private final String[][] texts;
+        // [field] 부분 문자열 후보 탐색용 글자/bigram postings
+        private final NGramPostingsIndex[] fieldIndexes;
+        // 필드 가중치를 둔 bigram/trigram BM25 색인 (순위 계산용)
+        private final Bm25Index rankingIndex;
+
+        private Snapshot(List<HSCode> codes, String version, Map<HSCode, Integer> docIds, String[][] texts,
+                         NGramPostingsIndex[] fieldIndexes, Bm25Index rankingIndex) {
+            this.codes = codes;
+            this.version = version;
+            this.docIds = docIds;
+            this.texts = texts;
+            this.fieldIndexes = fieldIndexes;
+            this.rankingIndex = rankingIndex;
+        }
+
+        private static Snapshot build(List<HSCode> source) {
+            List<HSCode> codes = List.copyOf(source);
+            Field[] fields = Field.values();
+            String[][] texts = new String[fields.length][codes.size()];
+            NGramPostingsIndex[] fieldIndexes = new NGramPostingsIndex[fields.length];
+
+            for (Field field : fields) {
+                for (int doc = 0; doc < codes.size(); doc++) {
+                    texts[field.ordinal()][doc] = HangulNGramTokenizer.normalize(fieldText(codes.get(doc), field));
+                }
+                fieldIndexes[field.ordinal()] = NGramPostingsIndex.build(
+                        Arrays.asList(texts[field.ordinal()]), HangulNGramTokenizer::substringIndexGrams);
+            }
+
+            double[] rankingWeights = new double[fields.length + 1];
+            for (Field field : fields) {
+                rankingWeights[field.ordinal()] = field.rankingWeight;
+            }
+            rankingWeights[fields.length] = DESCRIPTION_WEIGHT;
+
+            Map<HSCode, Integer> docIds = new IdentityHashMap<>(codes.size());
+            List<String[]> rankingDocs = new ArrayList<>(codes.size());
+            String[] descriptions = new String[codes.size()];
+            for (int doc = 0; doc < codes.size(); doc++) {
+                docIds.put(codes.get(doc), doc);
+                descriptions[doc] = Objects.toString(codes.get(doc).getDescription(), "");
+                String[] rankingFields = new String[fields.length + 1];
+                for (Field field : fields) {
+                    rankingFields[field.ordinal()] = texts[field.ordinal()][doc];
+                }
+                rankingFields[fields.length] = HangulNGramTokenizer.normalize(descriptions[doc]);
+                rankingDocs.add(rankingFields);
+            }
+            Bm25Index rankingIndex = Bm25Index.build(rankingDocs, rankingWeights, HangulNGramTokenizer::rankingTerms);
+
+            return new Snapshot(codes, fingerprint(codes, texts, descriptions), docIds, texts, fieldIndexes, rankingIndex);
+        }
+
+        // 설명은 순위와 프롬프트에 쓰이므로 원문 그대로 지문에 넣는다 (설명만 고쳐도 캐시가 무효화되도록)
+        private static String fingerprint(List<HSCode> codes, String[][] texts, String[] descriptions) {
+            Integer[] order = new Integer[codes.size()];
+            for (int doc = 0; doc < order.length; doc++) {
+                order[doc] = doc;
+            }
+            Arrays.sort(order, Comparator.comparing(doc -> codes.get(doc).getHsCode()));
+
+            try {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
+                for (int doc : order) {
+                    md.update(codes.get(doc).getHsCode().getBytes(StandardCharsets.UTF_8));
+                    for (String[] fieldTexts : texts) {
+                        md.update((byte) 0);
+                        md.update(fieldTexts[doc].getBytes(StandardCharsets.UTF_8));
+                    }
+                    md.update((byte) 0);
+                    md.update(descriptions[doc].getBytes(StandardCharsets.UTF_8));
+                    md.update((byte) '\n');
+                }
+                return HexFormat.of().formatHex(md.digest()).substring(0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 algorithm not available", e);
+            }
+        }
+
+        private static String fieldText(HSCode code, Field field) {
+            return switch (field) {
+                case KOREAN_NAME -> code.getKoreanName();
+                case ENGLISH_NAME -> code.getEnglishName();
+                case MATERIAL -> code.getMaterialInfo();
+                case USAGE -> code.getUsageInfo();
+                // 노드마다 같은 지문이 나오도록 키워드 순서를 고정한다
+                case KEYWORD -> code.getKeywords() == null ? null
+                        : String.join(String.valueOf(KEYWORD_SEPARATOR), new TreeSet<>(code.getKeywords()));
+            };
+        }
+
+        private BitSet match(Field field, String query, Set<String> queryGrams) {
+            // 질의의 모든 n-gram 을 가진 문서만 후보로 두고, 원문 포함 여부로 최종 확인한다
+            BitSet candidates = fieldIndexes[field.ordinal()].containingAll(queryGrams);
+
+            String[] fieldTexts = texts[field.ordinal()];
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                if (!fieldTexts[doc].contains(query)) {
+                    candidates.clear(doc);
+                }
+            }
+            return candidates;
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.easytrax.easytraxbackend.hscode.application;
 
 import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
 import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.global.s3.ContentHash;
+import com.easytrax.easytraxbackend.global.s3.S3ObjectInfo;
 import com.easytrax.easytraxbackend.global.s3.S3UploadService;
+import com.easytrax.easytraxbackend.global.s3.StoredFile;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByExtractionRequest;
 import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByInfoRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.HSCodeClassifyByObjectKeyRequest;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassificationResult;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.HSCodeClassifyResponse;
 import com.easytrax.easytraxbackend.hscode.api.dto.response.ProductInfoExtractionResponse;
@@ -13,43 +18,215 @@ import com.easytrax.easytraxbackend.hscode.domain.repository.ProductInfoReposito
 import com.easytrax.easytraxbackend.project.domain.Country;
 import com.easytrax.easytraxbackend.project.domain.Project;
 import com.easytrax.easytraxbackend.project.domain.repository.ProjectRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * S3 업로드와 Gemini 호출은 트랜잭션 밖에서 수행한다.
+ * 소유권 확인(읽기 전용)과 ProductInfo 저장(쓰기)만 짧은 트랜잭션으로 감싸 DB 커넥션 점유 시간을 줄인다.
+ * S3 업로드와 OCR 은 같은 업로드 파일을 공유하며 병렬로 진행된다.
+ */
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Slf4j
 public class HSCodeService {
 
+    private static final String HOLD_TIME_METRIC = "hscode.db.connection.hold";
+
     private final ProjectRepository projectRepository;
     private final ProductInfoRepository productInfoRepository;
     private final GeminiOcrService geminiOcrService;
     private final HSCodeClassificationService classificationService;
     private final S3UploadService s3UploadService;
+    private final ProductExtractionStore productExtractionStore;
+    private final ImageUploadService imageUploadService;
+    private final MeterRegistry meterRegistry;
+
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public HSCodeService(ProjectRepository projectRepository,
+                         ProductInfoRepository productInfoRepository,
+                         GeminiOcrService geminiOcrService,
+                         HSCodeClassificationService classificationService,
+                         S3UploadService s3UploadService,
+                         ProductExtractionStore productExtractionStore,
+                         ImageUploadService imageUploadService,
+                         MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.productInfoRepository = productInfoRepository;
+        this.geminiOcrService = geminiOcrService;
+        this.classificationService = classificationService;
+        this.s3UploadService = s3UploadService;
+        this.productExtractionStore = productExtractionStore;
+        this.imageUploadService = imageUploadService;
+        this.meterRegistry = meterRegistry;
+
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
 
-    @Transactional
     public ProductInfoExtractionResponse extractProductInfoFromImage(Long userId, Long projectId, MultipartFile imageFile) {
         
-        findProjectByIdAndUserId(projectId, userId);
+        checkOwnership("extract-product-info", userId, projectId);
         
-        String imageUrl = s3UploadService.uploadFile(imageFile);
+        ImageAnalysis analysis = uploadAndExtract(imageFile);
         
-        ProductOcrResult ocrResult = geminiOcrService.extractProductInfo(imageFile);
+        // 이어지는 분류 요청이 이미지를 다시 올리지 않도록 결과를 보관한다
+        String extractionId = productExtractionStore.save(userId, projectId, analysis.imageUrl(), analysis.ocrResult());
         
-        return ProductInfoExtractionResponse.from(ocrResult, imageUrl);
+        return ProductInfoExtractionResponse.from(extractionId, analysis.ocrResult(), analysis.imageUrl());
     }
 
-    @Transactional
     public HSCodeClassifyResponse classifyByImage(Long userId, Long projectId, MultipartFile imageFile, 
                                                 Country originCountry, Country targetCountry) {
         
-        Project project = findProjectByIdAndUserId(projectId, userId);
+        checkOwnership("classify-by-image", userId, projectId);
         
-        String imageUrl = s3UploadService.uploadFile(imageFile);
+        ImageAnalysis analysis = uploadAndExtract(imageFile);
         
-        ProductOcrResult ocrResult = geminiOcrService.extractProductInfo(imageFile);
+        return classifyAndSave("classify-by-image", projectId, analysis.ocrResult(), analysis.imageUrl(),
+                originCountry, targetCountry);
+    }
+
+    // extract-product-info 에서 보관한 S3 URL 과 OCR 결과로 분류한다 (업로드/OCR 생략)
+    public HSCodeClassifyResponse classifyByExtraction(Long userId, HSCodeClassifyByExtractionRequest request) {
+        
+        ProductExtractionStore.StoredExtraction extraction = productExtractionStore.find(userId, request.extractionId())
+                .orElseThrow(() -> new GeneralException(ErrorStatus.EXTRACTION_NOT_FOUND));
+        
+        checkOwnership("classify-by-extraction", userId, extraction.projectId());
+        
+        return classifyAndSave("classify-by-extraction", extraction.projectId(), extraction.ocrResult(),
+                extraction.imageUrl(), request.originCountry(), request.targetCountry());
+    }
+
+    // 비동기 분류 작업: 이미 S3 에 올라간 이미지를 내려받아 같은 파이프라인을 수행한다
+    // onOcrCompleted 는 분류 전에 OCR 결과를 받아 진행 상황을 알리는 데 쓴다
+    public HSCodeClassifyResponse classifyStoredImage(Long userId, Long projectId, String imageUrl, String contentType,
+                                                      Country originCountry, Country targetCountry,
+                                                      Consumer<ProductOcrResult> onOcrCompleted) {
+        return classifyStoredImage("classification-job", userId, projectId, imageUrl, contentType,
+                originCountry, targetCountry, onOcrCompleted);
+    }
+
+    // 클라이언트가 presigned URL 로 직접 올린 이미지를 분류한다. 이미지는 임시 파일로 스트리밍해 받는다
+    public HSCodeClassifyResponse classifyByObjectKey(Long userId, HSCodeClassifyByObjectKeyRequest request) {
+        
+        S3ObjectInfo image = imageUploadService.resolveUploadedImage(userId, request.objectKey());
+        
+        return classifyStoredImage("classify-by-object-key", userId, request.projectId(),
+                s3UploadService.getFileUrl(image.key()), image.contentType(),
+                request.originCountry(), request.targetCountry(), ocrResult -> { });
+    }
+
+    private HSCodeClassifyResponse classifyStoredImage(String operation, Long userId, Long projectId, String imageUrl,
+                                                       String contentType, Country originCountry, Country targetCountry,
+                                                       Consumer<ProductOcrResult> onOcrCompleted) {
+        
+        checkOwnership(operation, userId, projectId);
+        
+        ProductOcrResult ocrResult = extractStoredImage(imageUrl, contentType);
+        onOcrCompleted.accept(ocrResult);
+        
+        return classifyAndSave(operation, projectId, ocrResult, imageUrl, originCountry, targetCountry);
+    }
+
+    // S3 객체를 힙에 올리지 않고 임시 파일로 받아 OCR 에 넘긴 뒤 지운다
+    private ProductOcrResult extractStoredImage(String imageUrl, String contentType) {
+        Path imageFile;
+        try {
+            imageFile = Files.createTempFile("hscode-image-", null);
+        } catch (IOException e) {
+            throw new GeneralException(ErrorStatus.S3_DOWNLOAD_FAILED);
+        }
+
+        try {
+            s3UploadService.downloadTo(imageUrl, imageFile);
+            return geminiOcrService.extractProductInfo(imageFile, contentType);
+        } finally {
+            try {
+                Files.deleteIfExists(imageFile);
+            } catch (IOException e) {
+                log.warn("임시 이미지 파일 삭제 실패: {}", imageFile);
+            }
+        }
+    }
+
+    private record ImageAnalysis(String imageUrl, ProductOcrResult ocrResult) {
+    }
+
+    // S3 업로드는 비동기 클라이언트로, OCR 은 요청 스레드에서 동시에 수행한다
+    // 두 작업 모두 컨테이너가 보관한 multipart 파일을 각자 스트림으로 읽으므로 이미지를 메모리에 복사하지 않는다
+    // 같은 내용의 이미지가 다시 올라오면 S3 PUT 과 OCR 호출을 모두 건너뛴다
+    private ImageAnalysis uploadAndExtract(MultipartFile imageFile) {
+        geminiOcrService.validateImageFile(imageFile);
+        
+        String contentHash = contentHashOf(imageFile);
+        
+        CompletableFuture<StoredFile> upload = s3UploadService.uploadAsync(imageFile, contentHash);
+        
+        ProductOcrResult ocrResult;
+        try {
+            ocrResult = geminiOcrService.extractProductInfo(imageFile, contentHash);
+        } catch (RuntimeException e) {
+            discardUpload(upload);
+            throw e;
+        }
+        
+        return new ImageAnalysis(await(upload).url(), ocrResult);
+    }
+
+    private String contentHashOf(MultipartFile file) {
+        try {
+            return ContentHash.of(file);
+        } catch (IOException e) {
+            throw new GeneralException(ErrorStatus.FILE_UPLOAD_ERROR);
+        }
+    }
+
+    // 진행 중인 PUT 은 중단할 수 없으므로 끝나는 대로 삭제 큐에 넣는다
+    // 이번 요청이 만든 객체만 지운다. 이미 있던 객체는 다른 제품 정보가 참조하고 있을 수 있다
+    private void discardUpload(CompletableFuture<StoredFile> upload) {
+        upload.thenAccept(storedFile -> {
+            if (storedFile.created()) {
+                try {
+                    s3UploadService.deleteFilesLater(List.of(storedFile.url()));
+                } catch (GeneralException e) {
+                    log.warn("버릴 업로드를 삭제 큐에 넣지 못했습니다: {}", storedFile.url());
+                }
+            }
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private HSCodeClassifyResponse classifyAndSave(String operation, Long projectId, ProductOcrResult ocrResult,
+                                                   String imageUrl, Country originCountry, Country targetCountry) {
         
         HSCodeClassificationResult classificationResult = classificationService.classifyHSCode(
                 ocrResult.productName(), 
@@ -58,30 +235,29 @@ public class HSCodeService {
                 ocrResult.material()
         );
         
-        ProductInfo productInfo = ProductInfo.builder()
-                .productName(ocrResult.productName())
-                .purpose(ocrResult.purpose())
-                .description(ocrResult.description())
-                .material(ocrResult.material())
-                .originCountry(originCountry)
-                .targetCountry(targetCountry)
-                .extractedFromImage(true)
-                .imageUrl(imageUrl)
-                .confidenceScore(ocrResult.confidenceScore())
-                .classifiedHsCode(classificationResult.hsCode())
-                .classificationConfidence(classificationResult.confidence())
-                .project(project)
-                .build();
-        
-        ProductInfo savedProductInfo = productInfoRepository.save(productInfo);
-        
-        return HSCodeClassifyResponse.from(savedProductInfo);
+        return inWriteTransaction(operation, () -> {
+            ProductInfo productInfo = ProductInfo.builder()
+                    .productName(ocrResult.productName())
+                    .purpose(ocrResult.purpose())
+                    .description(ocrResult.description())
+                    .material(ocrResult.material())
+                    .originCountry(originCountry)
+                    .targetCountry(targetCountry)
+                    .extractedFromImage(true)
+                    .imageUrl(imageUrl)
+                    .confidenceScore(ocrResult.confidenceScore())
+                    .classifiedHsCode(classificationResult.hsCode())
+                    .classificationConfidence(classificationResult.confidence())
+                    .project(projectReference(projectId))
+                    .build();
+            
+            return HSCodeClassifyResponse.from(productInfoRepository.save(productInfo));
+        });
     }
 
-    @Transactional
     public HSCodeClassifyResponse classifyByInfo(Long userId, HSCodeClassifyByInfoRequest request) {
         
-        Project project = findProjectByIdAndUserId(request.projectId(), userId);
+        checkOwnership("classify-by-info", userId, request.projectId());
         
         HSCodeClassificationResult classificationResult = classificationService.classifyHSCode(
                 request.productName(), 
@@ -90,26 +266,57 @@ public class HSCodeService {
                 request.material()
         );
         
-        ProductInfo productInfo = request.toEntity(project);
-        productInfo.updateClassificationResult(
-                classificationResult.hsCode(), 
-                classificationResult.confidence()
-        );
-        
-        ProductInfo savedProductInfo = productInfoRepository.save(productInfo);
-        
-        return HSCodeClassifyResponse.from(savedProductInfo);
+        return inWriteTransaction("classify-by-info", () -> {
+            ProductInfo productInfo = request.toEntity(projectReference(request.projectId()));
+            productInfo.updateClassificationResult(
+                    classificationResult.hsCode(), 
+                    classificationResult.confidence()
+            );
+            
+            return HSCodeClassifyResponse.from(productInfoRepository.save(productInfo));
+        });
+    }
+
+    public void validateProjectOwnership(Long userId, Long projectId) {
+        checkOwnership("validate-project", userId, projectId);
     }
 
     public HSCodeClassifyResponse findProductInfo(Long userId, Long productInfoId) {
-        ProductInfo productInfo = productInfoRepository.findByIdAndUserId(productInfoId, userId)
-                .orElseThrow(() -> new GeneralException(ErrorStatus.RESOURCE_NOT_FOUND));
-        
-        return HSCodeClassifyResponse.from(productInfo);
+        return inReadTransaction("product-info", () -> {
+            ProductInfo productInfo = productInfoRepository.findByIdAndUserId(productInfoId, userId)
+                    .orElseThrow(() -> new GeneralException(ErrorStatus.RESOURCE_NOT_FOUND));
+            
+            return HSCodeClassifyResponse.from(productInfo);
+        });
+    }
+
+    private void checkOwnership(String operation, Long userId, Long projectId) {
+        boolean owned = inReadTransaction(operation, () -> projectRepository.existsByIdAndUserId(projectId, userId));
+        if (!owned) {
+            throw new GeneralException(ErrorStatus.PROJECT_NOT_FOUND);
+        }
+    }
+
+    // 소유권은 앞 단계에서 확인했으므로 SELECT 없이 참조만 건다
+    private Project projectReference(Long projectId) {
+        return projectRepository.getReferenceById(projectId);
+    }
+
+    private <T> T inReadTransaction(String operation, Supplier<T> action) {
+        return timed(operation, "read", () -> readTransaction.execute(status -> action.get()));
+    }
+
+    private <T> T inWriteTransaction(String operation, Supplier<T> action) {
+        return timed(operation, "write", () -> writeTransaction.execute(status -> action.get()));
     }
 
-    private Project findProjectByIdAndUserId(Long projectId, Long userId) {
-        return projectRepository.findByIdAndUserId(projectId, userId)
-                .orElseThrow(() -> new GeneralException(ErrorStatus.PROJECT_NOT_FOUND));
+    // 트랜잭션 구간 = 커넥션 점유 구간
+    private <T> T timed(String operation, String phase, Supplier<T> action) {
+        Timer timer = Timer.builder(HOLD_TIME_METRIC)
+                .description("HS 코드 API 의 DB 커넥션 점유 시간")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .register(meterRegistry);
+        return timer.record(action);
     }
-}
\ No newline at end of file
+}
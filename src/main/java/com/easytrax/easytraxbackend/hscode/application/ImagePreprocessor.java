@@ -0,0 +1,227 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.domain.search.DifferenceHash;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OCR 전에 이미지를 긴 변 기준 최대 크기로 줄이고 JPEG 로 다시 압축한다.
+ * 디코딩한 김에 유사 이미지 검색용 dHash 도 계산한다.
+ * 디코딩은 제한된 전용 풀에서 수행하며, 풀이 가득 찼거나 처리에 실패하면 원본을 그대로 보낸다 (해시 없음).
+ */
+@Component
+@Slf4j
+public class ImagePreprocessor {
+
+    private static final String JPEG = "image/jpeg";
+
+    // perceptualHash 는 디코딩하지 못했으면 null
+    public record ProcessedImage(InputStreamSource source, String contentType, long size, Long perceptualHash) {
+    }
+
+    private record Decoded(byte[] reencoded, long perceptualHash) {
+    }
+
+    private final boolean enabled;
+    private final int maxEdge;
+    private final float jpegQuality;
+    private final long minBytes;
+    private final Duration timeout;
+    private final ThreadPoolExecutor pool;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary bytesSaved;
+    private final Timer latency;
+
+    public ImagePreprocessor(MeterRegistry meterRegistry,
+                             @Value("${hscode.ocr.preprocess.enabled:true}") boolean enabled,
+                             @Value("${hscode.ocr.preprocess.max-edge:1600}") int maxEdge,
+                             @Value("${hscode.ocr.preprocess.jpeg-quality:0.85}") float jpegQuality,
+                             @Value("${hscode.ocr.preprocess.min-bytes:204800}") long minBytes,
+                             @Value("${hscode.ocr.preprocess.timeout:5s}") Duration timeout,
+                             @Value("${hscode.ocr.preprocess.threads:2}") int threads,
+                             @Value("${hscode.ocr.preprocess.queue-capacity:16}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxEdge = maxEdge;
+        this.jpegQuality = jpegQuality;
+        this.minBytes = minBytes;
+        this.timeout = timeout;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-preprocess-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.bytesSaved = DistributionSummary.builder("hscode.ocr.preprocess.bytes.saved")
+                .description("전처리로 줄어든 OCR 요청 이미지 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.latency = Timer.builder("hscode.ocr.preprocess.latency")
+                .description("이미지 전처리 소요 시간 (대기 포함)")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public ProcessedImage process(InputStreamSource image, String contentType, long size) {
+        ProcessedImage original = new ProcessedImage(image, contentType, size, null);
+        if (!enabled) {
+            count("skipped");
+            return original;
+        }
+
+        long start = System.nanoTime();
+        // 작은 이미지는 해시만 계산하고 다시 압축하지 않는다
+        boolean reencode = size >= minBytes;
+        Future<Decoded> future;
+        try {
+            future = pool.submit(() -> decode(image, reencode));
+        } catch (RejectedExecutionException e) {
+            // 전처리가 밀려 있으면 요청을 막지 않고 원본을 보낸다
+            count("rejected");
+            return original;
+        }
+
+        try {
+            Decoded decoded = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (decoded == null) {
+                count("unreadable");
+                return original;
+            }
+            byte[] processed = decoded.reencoded();
+            if (processed == null || processed.length >= size) {
+                count(reencode ? "unchanged" : "skipped");
+                return new ProcessedImage(image, contentType, size, decoded.perceptualHash());
+            }
+            bytesSaved.record(size - processed.length);
+            count("resized");
+            return new ProcessedImage(new ByteArrayResource(processed), JPEG, processed.length, decoded.perceptualHash());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            count("timeout");
+            return original;
+        } catch (ExecutionException e) {
+            log.warn("이미지 전처리 실패 - 원본을 사용합니다: {}", e.getCause().getMessage());
+            count("failed");
+            return original;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return original;
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 읽을 수 없는 형식이면 null
+    private Decoded decode(InputStreamSource image, boolean reencode) throws IOException {
+        try (InputStream in = image.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(in)) {
+            if (imageInput == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+
+                // 목표 크기의 2배를 넘는 해상도는 디코딩 단계에서 건너뛰어 메모리를 아낀다
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (maxEdge * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                BufferedImage decoded = reader.read(0, param);
+                long perceptualHash = DifferenceHash.of(decoded);
+                return new Decoded(reencode ? encodeJpeg(resize(decoded)) : null, perceptualHash);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // JPEG 는 알파를 지원하지 않으므로 흰 배경 위에 그린다
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream imageOutput = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("hscode.ocr.preprocess", "outcome", outcome).increment();
+    }
+}
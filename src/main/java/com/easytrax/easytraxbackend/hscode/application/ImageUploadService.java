@@ -0,0 +1,119 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
+import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.global.s3.PresignedUpload;
+import com.easytrax.easytraxbackend.global.s3.S3DeletionQueue;
+import com.easytrax.easytraxbackend.global.s3.S3ObjectInfo;
+import com.easytrax.easytraxbackend.global.s3.S3UploadService;
+import com.easytrax.easytraxbackend.hscode.api.dto.request.PresignedUploadRequest;
+import com.easytrax.easytraxbackend.hscode.api.dto.response.PresignedUploadResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 클라이언트가 이미지를 S3 에 직접 올리도록 presigned PUT URL 을 발급하고,
+ * 분류 요청에서 받은 객체 키가 본인에게 발급된 것인지 확인한다. 이미지 바이트는 API 노드를 거치지 않는다.
+ * 발급 기록이 만료돼 더 이상 분류에 쓸 수 없는 키는 주기적으로 삭제 큐에 넣는다.
+ * 분류되어 제품 정보가 참조하는 이미지는 삭제 큐가 지우기 직전에 걸러내므로 남는다.
+ */
+@Service
+@Slf4j
+public class ImageUploadService {
+
+    private static final String ISSUED_PREFIX = "hscode:upload:";
+    // 발급한 키 -> 발급 기록 만료 시각 (epoch millis)
+    private static final String EXPIRY_KEY = "hscode:uploads:expiry";
+    private static final int SWEEP_BATCH_SIZE = 1000;
+    // 발급 기록은 URL 만료 후에도 분류 요청이 올 수 있도록 넉넉히 남긴다
+    private static final Duration ISSUED_GRACE = Duration.ofHours(1);
+
+    private final S3UploadService s3UploadService;
+    private final GeminiOcrService geminiOcrService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final S3DeletionQueue s3DeletionQueue;
+    private final Duration presignTtl;
+    private final String keyPrefix;
+
+    public ImageUploadService(S3UploadService s3UploadService,
+                              GeminiOcrService geminiOcrService,
+                              RedisTemplate<String, String> redisTemplate,
+                              S3DeletionQueue s3DeletionQueue,
+                              @Value("${hscode.upload.presign-ttl:10m}") Duration presignTtl,
+                              @Value("${hscode.upload.key-prefix:uploads/}") String keyPrefix) {
+        this.s3UploadService = s3UploadService;
+        this.geminiOcrService = geminiOcrService;
+        this.redisTemplate = redisTemplate;
+        this.s3DeletionQueue = s3DeletionQueue;
+        this.presignTtl = presignTtl;
+        this.keyPrefix = keyPrefix;
+    }
+
+    public PresignedUploadResponse issueUploadUrl(Long userId, PresignedUploadRequest request) {
+        geminiOcrService.validateImage(request.contentLength(), request.contentType());
+
+        String key = keyPrefix + userId + "/" + UUID.randomUUID() + extensionOf(request.fileName());
+        PresignedUpload upload = s3UploadService.presignUpload(key, request.contentType(), request.contentLength(), presignTtl);
+
+        Duration issuedTtl = presignTtl.plus(ISSUED_GRACE);
+        redisTemplate.opsForValue().set(ISSUED_PREFIX + key, String.valueOf(userId), issuedTtl);
+        redisTemplate.opsForZSet().add(EXPIRY_KEY, key, System.currentTimeMillis() + issuedTtl.toMillis());
+        return PresignedUploadResponse.from(upload);
+    }
+
+    // 발급 기록이 만료된 키를 삭제 큐로 넘긴다. 여러 노드가 동시에 돌아도 ZREM 에 성공한 노드만 넘긴다
+    @Scheduled(initialDelayString = "${hscode.upload.sweep-interval:10m}", fixedDelayString = "${hscode.upload.sweep-interval:10m}")
+    public void sweepExpiredUploads() {
+        try {
+            Set<String> expired = redisTemplate.opsForZSet().rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(),
+                    0, SWEEP_BATCH_SIZE);
+            if (expired == null || expired.isEmpty()) {
+                return;
+            }
+
+            List<String> claimed = expired.stream()
+                    .filter(key -> Long.valueOf(1).equals(redisTemplate.opsForZSet().remove(EXPIRY_KEY, key)))
+                    .toList();
+            try {
+                s3DeletionQueue.enqueue(claimed);
+            } catch (GeneralException e) {
+                // 다음 주기에 다시 시도한다
+                long now = System.currentTimeMillis();
+                claimed.forEach(key -> redisTemplate.opsForZSet().add(EXPIRY_KEY, key, now));
+                throw e;
+            }
+            log.info("분류되지 않은 업로드 {}개를 삭제 큐에 넣었습니다", claimed.size());
+        } catch (Exception e) {
+            log.warn("만료된 업로드 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 본인에게 발급된 키이고 실제로 업로드가 끝났는지 확인한다
+    public S3ObjectInfo resolveUploadedImage(Long userId, String objectKey) {
+        String owner = redisTemplate.opsForValue().get(ISSUED_PREFIX + objectKey);
+        if (!String.valueOf(userId).equals(owner)) {
+            throw new GeneralException(ErrorStatus.UPLOAD_NOT_FOUND);
+        }
+
+        S3ObjectInfo object = s3UploadService.findObject(objectKey)
+                .orElseThrow(() -> new GeneralException(ErrorStatus.UPLOAD_NOT_FOUND));
+        geminiOcrService.validateImage(object.contentLength(), object.contentType());
+        return object;
+    }
+
+    private static String extensionOf(String fileName) {
+        int dotIndex = fileName.lastIndexOf('.');
+        String extension = dotIndex >= 0 ? fileName.substring(dotIndex).toLowerCase(Locale.ROOT) : "";
+        // 키에 경로 문자가 섞이지 않도록 확장자만 남긴다
+        return extension.matches("\\.[a-z0-9]{1,5}") ? extension : "";
+    }
+}
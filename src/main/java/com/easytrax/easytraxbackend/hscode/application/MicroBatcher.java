@@ -0,0 +1,136 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 짧은 시간 창 안에 들어온 요청을 모아 한 번에 처리하고, 결과를 각 호출자의 future 로 나눠 돌려준다.
+ * handler 는 입력과 같은 순서의 결과 목록을 반환해야 하며, null 인 항목은 해당 호출자에게 실패로 전달된다.
+ * 대기 큐와 작업 큐 모두 크기가 정해져 있어, 가득 차면 RejectedExecutionException 으로 바로 실패시킨다 (호출 측에서 대체 처리).
+ */
+@Slf4j
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+    private record Pending<I, O>(I item, CompletableFuture<O> future) {
+    }
+
+    private final String name;
+    private final Function<List<I>, List<O>> handler;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<Pending<I, O>> queue;
+    private final Thread dispatcher;
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, Function<List<I>, List<O>> handler,
+                        Duration window, int maxBatchSize, int concurrency, int queueCapacity) {
+        this.name = name;
+        this.handler = handler;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        // 모든 작업자가 바쁠 때는 작업자 수만큼의 배치만 대기시킨다
+        int threads = Math.max(1, concurrency);
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.dispatcher = new Thread(this::dispatchLoop, name + "-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public CompletableFuture<O> submit(I item) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new RejectedExecutionException(name + " is closed"));
+            return future;
+        }
+        if (!queue.offer(new Pending<>(item, future))) {
+            future.completeExceptionally(new RejectedExecutionException(name + " queue is full"));
+        }
+        return future;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Pending<I, O> first = queue.take();
+                List<Pending<I, O>> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+
+                // 첫 요청 기준으로 창이 닫히거나 최대 크기에 도달할 때까지 모은다
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending<I, O> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                try {
+                    workers.execute(() -> process(batch));
+                } catch (RejectedExecutionException e) {
+                    log.warn("{} 배치 처리 거부: {}", name, e.getMessage());
+                    batch.forEach(pending -> pending.future().completeExceptionally(e));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void process(List<Pending<I, O>> batch) {
+        try {
+            List<O> results = handler.apply(batch.stream().map(Pending::item).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                O result = results != null && i < results.size() ? results.get(i) : null;
+                if (result != null) {
+                    batch.get(i).future().complete(result);
+                } else {
+                    batch.get(i).future().completeExceptionally(
+                            new IllegalStateException(name + " 배치 응답에 결과가 없습니다. index=" + i));
+                }
+            }
+        } catch (Exception e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        workers.shutdown();
+
+        List<Pending<I, O>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.future().completeExceptionally(
+                new RejectedExecutionException(name + " is closed")));
+    }
+}
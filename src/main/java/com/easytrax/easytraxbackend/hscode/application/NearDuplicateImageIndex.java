@@ -0,0 +1,95 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.domain.search.BKTree;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * OCR 을 마친 이미지의 dHash -> 내용 해시 색인.
+ * 재압축되거나 조금 잘린 같은 사진을 해밍 거리로 찾아 이전 OCR 결과를 재사용할 수 있게 한다.
+ * 64비트 중 몇 비트만 달라도 다른 상품 라벨일 수 있으므로 기준 거리는 2~3 정도로 좁게 두고,
+ * 거의 단색인 이미지처럼 비트가 한쪽으로 몰린 해시는 서로 쉽게 겹치므로 색인하지 않는다.
+ * 색인은 노드별 메모리에만 있어 재시작하면 비고 노드 간에 공유되지 않는다 (정확히 같은 이미지는 Redis OCR 캐시가 처리한다).
+ * 최대 개수를 넘으면 최근 항목 절반으로 트리를 다시 만든다.
+ */
+@Component
+public class NearDuplicateImageIndex {
+
+    // 1 비트 수가 이 범위 밖이면 구분력이 없는 해시로 본다
+    private static final int MIN_SET_BITS = 8;
+    private static final int MAX_SET_BITS = 56;
+
+    private record Entry(long perceptualHash, String contentHash) {
+    }
+
+    private final boolean enabled;
+    private final int maxDistance;
+    private final int maxEntries;
+    // 비슷한 이미지의 결과를 재사용할 때 신뢰도에서 뺄 값
+    private final double confidencePenalty;
+
+    private final Deque<Entry> recent = new ArrayDeque<>();
+    private BKTree<String> tree = new BKTree<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public NearDuplicateImageIndex(MeterRegistry meterRegistry,
+                                   @Value("${hscode.ocr.near-duplicate.enabled:true}") boolean enabled,
+                                   @Value("${hscode.ocr.near-duplicate.max-distance:3}") int maxDistance,
+                                   @Value("${hscode.ocr.near-duplicate.max-entries:100000}") int maxEntries,
+                                   @Value("${hscode.ocr.near-duplicate.confidence-penalty:0.1}") double confidencePenalty) {
+        this.enabled = enabled;
+        this.maxDistance = maxDistance;
+        this.maxEntries = Math.max(2, maxEntries);
+        this.confidencePenalty = confidencePenalty;
+        this.hits = meterRegistry.counter("hscode.ocr.near-duplicate", "result", "hit");
+        this.misses = meterRegistry.counter("hscode.ocr.near-duplicate", "result", "miss");
+    }
+
+    public double confidencePenalty() {
+        return confidencePenalty;
+    }
+
+    // 기준 거리 안에서 가장 가까운 이미지의 내용 해시
+    public synchronized Optional<String> findNearest(long perceptualHash) {
+        if (!enabled || !isDistinctive(perceptualHash)) {
+            return Optional.empty();
+        }
+        BKTree.Match<String> match = tree.nearest(perceptualHash, maxDistance);
+        if (match == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(match.value());
+    }
+
+    public synchronized void add(long perceptualHash, String contentHash) {
+        if (!enabled || !isDistinctive(perceptualHash)) {
+            return;
+        }
+        recent.addLast(new Entry(perceptualHash, contentHash));
+        tree.add(perceptualHash, contentHash);
+
+        if (recent.size() > maxEntries) {
+            while (recent.size() > maxEntries / 2) {
+                recent.removeFirst();
+            }
+            BKTree<String> rebuilt = new BKTree<>();
+            recent.forEach(entry -> rebuilt.add(entry.perceptualHash(), entry.contentHash()));
+            tree = rebuilt;
+        }
+    }
+
+    private static boolean isDistinctive(long perceptualHash) {
+        int setBits = Long.bitCount(perceptualHash);
+        return setBits >= MIN_SET_BITS && setBits <= MAX_SET_BITS;
+    }
+}
@@ -0,0 +1,67 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.api.dto.response.ProductOcrResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 이미지 내용 해시별 OCR 결과 캐시 (Redis). 모델이나 결과 버전(프롬프트/응답 스키마)이 바뀌면 키가 달라진다.
+ * Redis 장애 시에는 캐시 없이 동작한다.
+ */
+@Component
+@Slf4j
+public class OcrResultCache {
+
+    private static final String KEY_PREFIX = "hscode:ocr:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration ttl;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public OcrResultCache(RedisTemplate<String, String> redisTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${hscode.ocr.cache.ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.hits = meterRegistry.counter("hscode.ocr.cache", "result", "hit");
+        this.misses = meterRegistry.counter("hscode.ocr.cache", "result", "miss");
+    }
+
+    public Optional<ProductOcrResult> get(String model, String version, String contentHash) {
+        try {
+            String json = redisTemplate.opsForValue().get(keyOf(model, version, contentHash));
+            if (json != null) {
+                hits.increment();
+                return Optional.of(objectMapper.readValue(json, ProductOcrResult.class));
+            }
+        } catch (Exception e) {
+            log.warn("OCR 캐시 조회 실패: {}", e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String model, String version, String contentHash, ProductOcrResult result) {
+        try {
+            redisTemplate.opsForValue().set(keyOf(model, version, contentHash), objectMapper.writeValueAsString(result), ttl);
+        } catch (Exception e) {
+            log.warn("OCR 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    // hscode:ocr:{model}:{version}:{sha256}
+    private static String keyOf(String model, String version, String contentHash) {
+        return KEY_PREFIX + model + ":" + version + ":" + contentHash;
+    }
+}
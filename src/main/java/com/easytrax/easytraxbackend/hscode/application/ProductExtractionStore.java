@@ -0,0 +1,63 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.api.dto.response.ProductOcrResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * extract-product-info 결과(S3 URL + OCR 결과)를 잠시 보관해 두었다가
+ * 같은 이미지를 다시 올리지 않고 분류할 수 있게 한다.
+ */
+@Component
+@Slf4j
+public class ProductExtractionStore {
+
+    private static final String KEY_PREFIX = "hscode:extraction:";
+
+    public record StoredExtraction(Long userId, Long projectId, String imageUrl, ProductOcrResult ocrResult) {
+    }
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration ttl;
+
+    public ProductExtractionStore(RedisTemplate<String, String> redisTemplate,
+                                  @Value("${hscode.extraction.ttl:30m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    // 저장하지 못하면 null (추출 결과 자체는 그대로 응답한다)
+    public String save(Long userId, Long projectId, String imageUrl, ProductOcrResult ocrResult) {
+        String extractionId = UUID.randomUUID().toString();
+        try {
+            String json = objectMapper.writeValueAsString(new StoredExtraction(userId, projectId, imageUrl, ocrResult));
+            redisTemplate.opsForValue().set(KEY_PREFIX + extractionId, json, ttl);
+            return extractionId;
+        } catch (Exception e) {
+            log.warn("제품 정보 추출 결과 저장 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public Optional<StoredExtraction> find(Long userId, String extractionId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + extractionId);
+            if (json == null) {
+                return Optional.empty();
+            }
+            StoredExtraction extraction = objectMapper.readValue(json, StoredExtraction.class);
+            return userId.equals(extraction.userId()) ? Optional.of(extraction) : Optional.empty();
+        } catch (Exception e) {
+            log.warn("제품 정보 추출 결과 조회 실패: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
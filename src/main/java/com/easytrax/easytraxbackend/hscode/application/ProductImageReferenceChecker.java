@@ -0,0 +1,33 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.global.s3.S3ObjectReferenceChecker;
+import com.easytrax.easytraxbackend.global.s3.S3UploadService;
+import com.easytrax.easytraxbackend.hscode.domain.repository.ProductInfoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// 제품 정보의 imageUrl 로 아직 쓰이는 이미지 객체
+@Component
+@RequiredArgsConstructor
+public class ProductImageReferenceChecker implements S3ObjectReferenceChecker {
+
+    private final ProductInfoRepository productInfoRepository;
+    private final S3UploadService s3UploadService;
+
+    @Override
+    public Set<String> findReferencedKeys(Collection<String> keys) {
+        Map<String, String> keyByUrl = new HashMap<>();
+        keys.forEach(key -> keyByUrl.put(s3UploadService.getFileUrl(key), key));
+
+        Set<String> referenced = new HashSet<>();
+        productInfoRepository.findReferencedImageUrls(keyByUrl.keySet())
+                .forEach(url -> referenced.add(keyByUrl.get(url)));
+        return referenced;
+    }
+}
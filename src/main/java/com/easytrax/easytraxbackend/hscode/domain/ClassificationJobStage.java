@@ -0,0 +1,15 @@
+package com.easytrax.easytraxbackend.hscode.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 분류 파이프라인 진행 단계. 단계가 바뀔 때마다 SSE 구독자에게 알린다
+@Getter
+@AllArgsConstructor
+public enum ClassificationJobStage {
+    UPLOADED("이미지 업로드 완료"),
+    OCR_COMPLETED("제품 정보 추출 완료"),
+    CLASSIFIED("분류 완료");
+
+    private final String description;
+}
@@ -0,0 +1,19 @@
+package com.easytrax.easytraxbackend.hscode.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ClassificationJobStatus {
+    QUEUED("대기"),
+    RUNNING("처리 중"),
+    COMPLETED("완료"),
+    FAILED("실패");
+
+    private final String description;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -14,6 +14,21 @@ public interface HSCodeRepository extends JpaRepository<HSCode, Long> {
 
     Optional<HSCode> findByHsCodeAndIsActiveTrue(String hsCode);
 
+    @Query("SELECT DISTINCT h FROM HSCode h LEFT JOIN FETCH h.keywords WHERE h.isActive = true")
+    List<HSCode> findAllActiveWithKeywords();
+
+    // 활성 카탈로그 전체를 읽지 않고 변경 여부만 확인하기 위한 한 행짜리 체크섬 (건수 + 행/키워드별 CRC32 XOR)
+    @Query(value = "SELECT CONCAT_WS(':', " +
+                   "(SELECT COUNT(*) FROM hs_codes WHERE is_active = true), " +
+                   "(SELECT BIT_XOR(CRC32(CONCAT_WS(CHAR(1), hs_code, korean_name, english_name, description, " +
+                   "material_info, usage_info))) FROM hs_codes WHERE is_active = true), " +
+                   "(SELECT COUNT(*) FROM hs_code_keywords k JOIN hs_codes h ON h.id = k.hs_code_id " +
+                   "WHERE h.is_active = true), " +
+                   "(SELECT BIT_XOR(CRC32(CONCAT(h.hs_code, CHAR(1), k.keyword))) FROM hs_code_keywords k " +
+                   "JOIN hs_codes h ON h.id = k.hs_code_id WHERE h.is_active = true))",
+           nativeQuery = true)
+    String findActiveCatalogChecksum();
+
     @Query("SELECT h FROM HSCode h WHERE h.isActive = true AND h.level = :level")
     List<HSCode> findByLevelAndIsActiveTrue(@Param("level") Integer level);
 
@@ -0,0 +1,90 @@
+package com.easytrax.easytraxbackend.hscode.domain.repository;
+
+import com.easytrax.easytraxbackend.hscode.domain.ProductInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductInfo 대량 저장용. IDENTITY 전략에서는 Hibernate 가 INSERT 를 배치로 묶지 못하므로 JDBC 배치로 직접 넣는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductInfoJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO product_infos (product_name, purpose, description, material, origin_country, target_country,
+                                       extracted_from_image, image_url, confidence_score, classified_hs_code,
+                                       classification_confidence, project_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 저장된 순서대로 생성된 ID 목록을 반환한다
+    public List<Long> batchInsert(Long projectId, List<ProductInfo> productInfos) {
+        if (productInfos.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductInfo info = productInfos.get(i);
+                        ps.setString(1, info.getProductName());
+                        ps.setString(2, info.getPurpose());
+                        ps.setString(3, info.getDescription());
+                        ps.setString(4, info.getMaterial());
+                        ps.setString(5, info.getOriginCountry() != null ? info.getOriginCountry().name() : null);
+                        ps.setString(6, info.getTargetCountry() != null ? info.getTargetCountry().name() : null);
+                        ps.setBoolean(7, Boolean.TRUE.equals(info.getExtractedFromImage()));
+                        ps.setString(8, info.getImageUrl());
+                        setDouble(ps, 9, info.getConfidenceScore());
+                        ps.setString(10, info.getClassifiedHsCode());
+                        setDouble(ps, 11, info.getClassificationConfidence());
+                        ps.setLong(12, projectId);
+                        ps.setTimestamp(13, now);
+                        ps.setTimestamp(14, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return productInfos.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> ids = new ArrayList<>(productInfos.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            Object id = keys.values().iterator().next();
+            ids.add(id instanceof Number number ? number.longValue() : null);
+        }
+        return ids;
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+}
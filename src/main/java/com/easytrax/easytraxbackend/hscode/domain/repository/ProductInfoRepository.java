@@ -4,9 +4,11 @@ import com.easytrax.easytraxbackend.hscode.domain.ProductInfo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +31,15 @@ public interface ProductInfoRepository extends JpaRepository<ProductInfo, Long>
 
     @Query("SELECT p FROM ProductInfo p WHERE p.project.id = :projectId AND p.extractedFromImage = false")
     List<ProductInfo> findManualInputByProjectId(@Param("projectId") Long projectId);
-}
\ No newline at end of file
+
+    @Query("SELECT DISTINCT p.imageUrl FROM ProductInfo p WHERE p.project.id = :projectId AND p.imageUrl IS NOT NULL")
+    List<String> findImageUrlsByProjectId(@Param("projectId") Long projectId);
+
+    // 같은 내용의 이미지는 한 객체를 공유하므로, 지우기 전에 아직 참조 중인 URL 을 걸러낸다
+    @Query("SELECT DISTINCT p.imageUrl FROM ProductInfo p WHERE p.imageUrl IN :imageUrls")
+    List<String> findReferencedImageUrls(@Param("imageUrls") Collection<String> imageUrls);
+
+    @Modifying
+    @Query("DELETE FROM ProductInfo p WHERE p.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
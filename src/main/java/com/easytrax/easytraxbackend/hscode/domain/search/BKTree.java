@@ -0,0 +1,90 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 64비트 해시를 해밍 거리로 찾는 BK-tree. 스레드 안전하지 않으므로 호출 측에서 동기화한다.
+ */
+public final class BKTree<V> {
+
+    public record Match<V>(long hash, V value, int distance) {
+    }
+
+    private static final class Node<V> {
+        private final long hash;
+        private V value;
+        private final Map<Integer, Node<V>> children = new HashMap<>();
+
+        private Node(long hash, V value) {
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private Node<V> root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    // 같은 해시가 이미 있으면 값을 덮어쓴다
+    public void add(long hash, V value) {
+        if (root == null) {
+            root = new Node<>(hash, value);
+            size++;
+            return;
+        }
+
+        Node<V> node = root;
+        while (true) {
+            int distance = DifferenceHash.distance(node.hash, hash);
+            if (distance == 0) {
+                node.value = value;
+                return;
+            }
+            Node<V> child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node<>(hash, value));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // maxDistance 이내에서 가장 가까운 항목. 없으면 null
+    public Match<V> nearest(long hash, int maxDistance) {
+        if (root == null) {
+            return null;
+        }
+
+        Match<V> best = null;
+        int limit = maxDistance;
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.pop();
+            int distance = DifferenceHash.distance(node.hash, hash);
+            if (distance <= limit && (best == null || distance < best.distance())) {
+                best = new Match<>(node.hash, node.value, distance);
+                limit = distance;
+                if (distance == 0) {
+                    break;
+                }
+            }
+
+            // 삼각 부등식: |d - limit| ~ d + limit 범위의 자식만 볼 필요가 있다
+            for (Map.Entry<Integer, Node<V>> entry : node.children.entrySet()) {
+                if (Math.abs(entry.getKey() - distance) <= limit) {
+                    stack.push(entry.getValue());
+                }
+            }
+        }
+        return best;
+    }
+}
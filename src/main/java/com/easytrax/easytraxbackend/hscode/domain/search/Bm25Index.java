@@ -0,0 +1,108 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * BM25F 순위 색인. 문서의 필드마다 가중치를 곱한 용어 빈도를 합쳐 하나의 문서로 보고 BM25 점수를 매긴다.
+ * 흔한 n-gram 은 idf 로 낮게, 긴 설명 속 우연한 일치는 길이 정규화로 낮게 평가된다.
+ * 생성 후에는 변경되지 않으므로 여러 스레드에서 그대로 읽어도 된다.
+ */
+public final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private record Postings(int[] docs, float[] frequencies) {
+    }
+
+    private static final Postings EMPTY = new Postings(new int[0], new float[0]);
+
+    private final Map<String, Postings> postings;
+    private final double[] lengthNorms;
+
+    private Bm25Index(Map<String, Postings> postings, double[] lengthNorms) {
+        this.postings = postings;
+        this.lengthNorms = lengthNorms;
+    }
+
+    // docs.get(doc)[field] 는 정규화된 필드 원문, fieldWeights[field] 는 그 필드의 가중치
+    public static Bm25Index build(List<String[]> docs, double[] fieldWeights, Function<String, List<String>> tokenizer) {
+        Map<String, List<Integer>> buildingDocs = new HashMap<>();
+        Map<String, List<Float>> buildingFrequencies = new HashMap<>();
+        double[] lengths = new double[docs.size()];
+
+        for (int doc = 0; doc < docs.size(); doc++) {
+            String[] fields = docs.get(doc);
+            Map<String, Double> frequencies = new HashMap<>();
+            for (int field = 0; field < fields.length; field++) {
+                double weight = fieldWeights[field];
+                for (String term : tokenizer.apply(fields[field])) {
+                    frequencies.merge(term, weight, Double::sum);
+                    lengths[doc] += weight;
+                }
+            }
+            for (Map.Entry<String, Double> entry : frequencies.entrySet()) {
+                buildingDocs.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(doc);
+                buildingFrequencies.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue().floatValue());
+            }
+        }
+
+        Map<String, Postings> postings = new HashMap<>(buildingDocs.size() * 2);
+        buildingDocs.forEach((term, termDocs) -> {
+            List<Float> termFrequencies = buildingFrequencies.get(term);
+            float[] frequencies = new float[termFrequencies.size()];
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] = termFrequencies.get(i);
+            }
+            postings.put(term, new Postings(termDocs.stream().mapToInt(Integer::intValue).toArray(), frequencies));
+        });
+
+        // 문서 길이 정규화 항 k1 * (1 - b + b * dl / avgdl) 은 질의와 무관하므로 미리 계산한다
+        double total = 0;
+        for (double length : lengths) {
+            total += length;
+        }
+        double averageLength = docs.isEmpty() || total == 0 ? 1.0 : total / docs.size();
+        double[] lengthNorms = new double[docs.size()];
+        for (int doc = 0; doc < lengths.length; doc++) {
+            lengthNorms[doc] = K1 * (1 - B + B * lengths[doc] / averageLength);
+        }
+        return new Bm25Index(postings, lengthNorms);
+    }
+
+    public int size() {
+        return lengthNorms.length;
+    }
+
+    // 후보 문서별 BM25 점수. 후보가 아닌 문서는 0
+    public double[] score(Set<String> queryTerms, BitSet candidates) {
+        double[] scores = new double[size()];
+        for (String term : queryTerms) {
+            Postings termPostings = postings.getOrDefault(term, EMPTY);
+            if (termPostings.docs().length == 0) {
+                continue;
+            }
+
+            double idf = idf(termPostings.docs().length);
+            for (int i = 0; i < termPostings.docs().length; i++) {
+                int doc = termPostings.docs()[i];
+                if (candidates.get(doc)) {
+                    double frequency = termPostings.frequencies()[i];
+                    scores[doc] += idf * frequency * (K1 + 1) / (frequency + lengthNorms[doc]);
+                }
+            }
+        }
+        return scores;
+    }
+
+    // 음수가 나오지 않는 BM25 idf: ln(1 + (N - df + 0.5) / (df + 0.5))
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+}
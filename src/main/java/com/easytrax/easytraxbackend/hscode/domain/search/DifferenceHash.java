@@ -0,0 +1,68 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 64비트 dHash. 이미지를 9x8 회색조 격자로 줄인 뒤 가로로 이웃한 칸의 밝기 대소를 비트로 기록한다.
+ * 재압축, 약간의 크기 변경/잘림에는 해밍 거리가 작게 유지된다.
+ */
+public final class DifferenceHash {
+
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+    // 칸 하나당 읽는 최대 표본 수 (한 변 기준)
+    private static final int MAX_SAMPLES_PER_CELL_EDGE = 16;
+
+    private DifferenceHash() {
+    }
+
+    public static long of(BufferedImage image) {
+        double[][] cells = averageLuminance(image);
+
+        long hash = 0L;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                hash <<= 1;
+                if (cells[y][x] > cells[y][x + 1]) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    // 칸별 평균 밝기. 큰 이미지는 칸 안에서 일정 간격으로만 읽는다
+    private static double[][] averageLuminance(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] cells = new double[HEIGHT][WIDTH];
+
+        for (int cy = 0; cy < HEIGHT; cy++) {
+            int y0 = cy * height / HEIGHT;
+            int y1 = Math.max(y0 + 1, (cy + 1) * height / HEIGHT);
+            int yStep = Math.max(1, (y1 - y0) / MAX_SAMPLES_PER_CELL_EDGE);
+
+            for (int cx = 0; cx < WIDTH; cx++) {
+                int x0 = cx * width / WIDTH;
+                int x1 = Math.max(x0 + 1, (cx + 1) * width / WIDTH);
+                int xStep = Math.max(1, (x1 - x0) / MAX_SAMPLES_PER_CELL_EDGE);
+
+                double sum = 0;
+                int count = 0;
+                for (int y = y0; y < Math.min(y1, height); y += yStep) {
+                    for (int x = x0; x < Math.min(x1, width); x += xStep) {
+                        int rgb = image.getRGB(x, y);
+                        sum += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                        count++;
+                    }
+                }
+                cells[cy][cx] = count == 0 ? 0 : sum / count;
+            }
+        }
+        return cells;
+    }
+}
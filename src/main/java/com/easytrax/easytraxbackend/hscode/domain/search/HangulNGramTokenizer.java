@@ -0,0 +1,100 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 한글 음절 단위 n-gram 토크나이저.
+ * "봉지라면" 처럼 띄어쓰기 없는 복합어도 "라면" 과 같은 bigram 을 공유하므로 부분 일치 후보로 잡힌다.
+ */
+public final class HangulNGramTokenizer {
+
+    private HangulNGramTokenizer() {
+    }
+
+    // NFC 로 자모를 음절로 합치고 소문자로 통일한다
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFC).trim().toLowerCase(Locale.ROOT);
+    }
+
+    // 문자/숫자 연속 구간을 단어로 본다
+    public static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                words.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            words.add(normalized.substring(start));
+        }
+        return words;
+    }
+
+    // 부분 문자열 후보 탐색용: 두 글자 이상 단어는 bigram, 한 글자 단어는 그 글자 자체
+    public static Set<String> bigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : words(normalized)) {
+            appendGrams(word, 2, grams);
+        }
+        return grams;
+    }
+
+    // 색인 측: 질의 단어 길이에 관계없이 포함 여부를 판별할 수 있도록 각 글자와 bigram 을 모두 넣는다
+    public static Set<String> substringIndexGrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : words(normalized)) {
+            appendGrams(word, 1, grams);
+            appendGrams(word, 2, grams);
+        }
+        return grams;
+    }
+
+    // 순위 계산용: bigram 과 trigram 을 함께 사용해 어순이 맞을수록 점수가 높아지게 한다
+    public static Set<String> rankingGrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : words(normalized)) {
+            appendGrams(word, 2, grams);
+            if (word.length() >= 3) {
+                appendGrams(word, 3, grams);
+            }
+        }
+        return grams;
+    }
+
+    // BM25 용: rankingGrams 와 같은 n-gram 을 중복 포함해 나온 횟수(용어 빈도)를 유지한다
+    public static List<String> rankingTerms(String normalized) {
+        List<String> terms = new ArrayList<>();
+        for (String word : words(normalized)) {
+            appendGrams(word, 2, terms);
+            if (word.length() >= 3) {
+                appendGrams(word, 3, terms);
+            }
+        }
+        return terms;
+    }
+
+    private static void appendGrams(String word, int n, Collection<String> grams) {
+        if (word.length() < n) {
+            grams.add(word);
+            return;
+        }
+        for (int i = 0; i + n <= word.length(); i++) {
+            grams.add(word.substring(i, i + n));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 다중 패턴 매처. 한 번 만들어 두면 입력 텍스트를 한 번만 훑어 모든 키워드 출현을 찾는다.
+ * 패턴은 생성 시 소문자로 정규화하고, 입력은 글자 단위로 소문자 변환하므로 스캔 중 문자열을 새로 만들지 않는다.
+ */
+public final class KeywordAutomaton {
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    // 노드별 자식 전이: 정렬된 글자 배열과 대상 노드 배열 (이진 탐색)
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // 노드에서 끝나는 패턴 번호 (실패 링크를 따라 도달하는 패턴까지 합쳐 둔다)
+    private final int[][] outputs;
+    private final int[] patternPayloads;
+    private final int[] patternLengths;
+
+    @FunctionalInterface
+    public interface MatchListener {
+        void onMatch(int payload, int start, int end);
+    }
+
+    private KeywordAutomaton(char[][] edgeChars, int[][] edgeTargets, int[] failure, int[][] outputs,
+                             int[] patternPayloads, int[] patternLengths) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputs = outputs;
+        this.patternPayloads = patternPayloads;
+        this.patternLengths = patternLengths;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // 매칭마다 payload 와 [start, end) 위치를 알린다
+    public void scan(CharSequence text, MatchListener listener) {
+        if (text == null) {
+            return;
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next = child(state, c);
+            while (next < 0 && state != 0) {
+                state = failure[state];
+                next = child(state, c);
+            }
+            state = next < 0 ? 0 : next;
+
+            for (int pattern : outputs[state]) {
+                listener.onMatch(patternPayloads[pattern], i + 1 - patternLengths[pattern], i + 1);
+            }
+        }
+    }
+
+    private int child(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index < 0 ? -1 : edgeTargets[node][index];
+    }
+
+    public static final class Builder {
+
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> terminals = new ArrayList<>();
+        private final List<Integer> payloads = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private Builder() {
+            newNode();
+        }
+
+        public Builder add(String pattern, int payload) {
+            if (pattern == null || pattern.isBlank()) {
+                return this;
+            }
+
+            String normalized = pattern.trim().toLowerCase(Locale.ROOT);
+            int node = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = newNode();
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+
+            terminals.get(node).add(payloads.size());
+            payloads.add(payload);
+            lengths.add(normalized.length());
+            return this;
+        }
+
+        public KeywordAutomaton build() {
+            int size = children.size();
+            char[][] edgeChars = new char[size][];
+            int[][] edgeTargets = new int[size][];
+            for (int node = 0; node < size; node++) {
+                Map<Character, Integer> edges = children.get(node);
+                edgeChars[node] = new char[edges.size()];
+                edgeTargets[node] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    edgeChars[node][i] = edge.getKey();
+                    edgeTargets[node][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // BFS 로 실패 링크를 계산하고 출력 집합을 합친다
+            int[] failure = new int[size];
+            int[][] outputs = new int[size][];
+            outputs[0] = toArray(terminals.get(0));
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int target : edgeTargets[0]) {
+                failure[target] = 0;
+                queue.add(target);
+            }
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                int[] inherited = outputs[failure[node]];
+                int[] own = toArray(terminals.get(node));
+                outputs[node] = merge(own, inherited);
+
+                for (int i = 0; i < edgeChars[node].length; i++) {
+                    char c = edgeChars[node][i];
+                    int target = edgeTargets[node][i];
+
+                    int fallback = failure[node];
+                    int next = childOf(edgeChars, edgeTargets, fallback, c);
+                    while (next < 0 && fallback != 0) {
+                        fallback = failure[fallback];
+                        next = childOf(edgeChars, edgeTargets, fallback, c);
+                    }
+                    failure[target] = next < 0 || next == target ? 0 : next;
+                    queue.add(target);
+                }
+            }
+
+            return new KeywordAutomaton(edgeChars, edgeTargets, failure, outputs,
+                    payloads.stream().mapToInt(Integer::intValue).toArray(),
+                    lengths.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private int newNode() {
+            children.add(new TreeMap<>());
+            terminals.add(new ArrayList<>());
+            return children.size() - 1;
+        }
+
+        private static int childOf(char[][] edgeChars, int[][] edgeTargets, int node, char c) {
+            int index = Arrays.binarySearch(edgeChars[node], c);
+            return index < 0 ? -1 : edgeTargets[node][index];
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.isEmpty() ? NO_OUTPUT : values.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int[] merge(int[] own, int[] inherited) {
+            if (inherited.length == 0) {
+                return own;
+            }
+            if (own.length == 0) {
+                return inherited;
+            }
+            int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+            System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * n-gram -> 문서 번호 postings 목록. 생성 후에는 변경되지 않으므로 여러 스레드에서 그대로 읽어도 된다.
+ */
+public final class NGramPostingsIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<String, int[]> postings;
+    private final int[] gramCounts;
+
+    private NGramPostingsIndex(Map<String, int[]> postings, int[] gramCounts) {
+        this.postings = postings;
+        this.gramCounts = gramCounts;
+    }
+
+    public static NGramPostingsIndex build(List<String> normalizedDocs, Function<String, Set<String>> tokenizer) {
+        Map<String, List<Integer>> building = new HashMap<>();
+        int[] gramCounts = new int[normalizedDocs.size()];
+
+        for (int doc = 0; doc < normalizedDocs.size(); doc++) {
+            Set<String> grams = tokenizer.apply(normalizedDocs.get(doc));
+            gramCounts[doc] = grams.size();
+            for (String gram : grams) {
+                building.computeIfAbsent(gram, k -> new ArrayList<>()).add(doc);
+            }
+        }
+
+        Map<String, int[]> postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, docs) -> postings.put(gram, docs.stream().mapToInt(Integer::intValue).toArray()));
+        return new NGramPostingsIndex(postings, gramCounts);
+    }
+
+    public int size() {
+        return gramCounts.length;
+    }
+
+    public int[] postings(String gram) {
+        return postings.getOrDefault(gram, EMPTY);
+    }
+
+    // 질의 n-gram 을 모두 포함하는 문서. 짧은 postings 부터 교집합을 구해 후보를 빠르게 줄인다.
+    public BitSet containingAll(Set<String> queryGrams) {
+        BitSet result = new BitSet(size());
+        if (queryGrams.isEmpty()) {
+            result.set(0, size());
+            return result;
+        }
+
+        List<int[]> lists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            int[] docs = postings(gram);
+            if (docs.length == 0) {
+                return result;
+            }
+            lists.add(docs);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+        for (int doc : lists.get(0)) {
+            result.set(doc);
+        }
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            BitSet next = new BitSet(size());
+            for (int doc : lists.get(i)) {
+                if (result.get(doc)) {
+                    next.set(doc);
+                }
+            }
+            result = next;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 여러 텍스트에 대한 일반화 접미사 오토마톤. "어떤 텍스트가 질의를 포함하는가" 를 질의 길이만큼 한 번 훑어 답한다.
+ * KeywordAutomaton 이 입력 안의 키워드를 찾는 방향이라면, 이쪽은 키워드(텍스트) 안의 입력을 찾는 방향이다.
+ * 텍스트는 생성 시 소문자로 정규화하고, 질의는 글자 단위로 소문자 변환한다.
+ */
+public final class SubstringAutomaton {
+
+    private static final int[] NO_PAYLOAD = new int[0];
+
+    // 상태별 전이: 정렬된 글자 배열과 대상 상태 배열 (이진 탐색)
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    // 상태가 나타내는 부분 문자열을 포함하는 텍스트들의 payload (중복 없음)
+    private final int[][] payloads;
+
+    private SubstringAutomaton(char[][] edgeChars, int[][] edgeTargets, int[][] payloads) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.payloads = payloads;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // query 를 부분 문자열로 갖는 텍스트들의 payload. 빈 질의는 아무것도 찾지 않는다
+    public int[] containing(CharSequence query) {
+        if (query == null || query.length() == 0) {
+            return NO_PAYLOAD;
+        }
+
+        int state = 0;
+        for (int i = 0; i < query.length(); i++) {
+            int index = Arrays.binarySearch(edgeChars[state], Character.toLowerCase(query.charAt(i)));
+            if (index < 0) {
+                return NO_PAYLOAD;
+            }
+            state = edgeTargets[state][index];
+        }
+        return payloads[state];
+    }
+
+    public static final class Builder {
+
+        private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+        private final List<Integer> links = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Integer> textPayloads = new ArrayList<>();
+
+        private Builder() {
+            newState(0, -1);
+        }
+
+        public Builder add(String text, int payload) {
+            if (text == null || text.isEmpty()) {
+                return this;
+            }
+
+            String normalized = text.toLowerCase(Locale.ROOT);
+            int last = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                last = extend(last, normalized.charAt(i));
+            }
+
+            texts.add(normalized);
+            textPayloads.add(payload);
+            return this;
+        }
+
+        public SubstringAutomaton build() {
+            int size = transitions.size();
+
+            // 텍스트의 각 접두사 상태에서 접미사 링크를 따라 올라가며 payload 를 표시한다.
+            // 이미 표시된 상태를 만나면 그 위도 모두 표시돼 있으므로 멈춘다
+            List<TreeSet<Integer>> marks = new ArrayList<>(size);
+            for (int state = 0; state < size; state++) {
+                marks.add(new TreeSet<>());
+            }
+            for (int t = 0; t < texts.size(); t++) {
+                String text = texts.get(t);
+                int payload = textPayloads.get(t);
+                int state = 0;
+                for (int i = 0; i < text.length(); i++) {
+                    state = transitions.get(state).get(text.charAt(i));
+                    int marked = state;
+                    while (marked > 0 && marks.get(marked).add(payload)) {
+                        marked = links.get(marked);
+                    }
+                }
+            }
+
+            char[][] edgeChars = new char[size][];
+            int[][] edgeTargets = new int[size][];
+            int[][] payloads = new int[size][];
+            for (int state = 0; state < size; state++) {
+                Map<Character, Integer> edges = transitions.get(state);
+                edgeChars[state] = new char[edges.size()];
+                edgeTargets[state] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    edgeChars[state][i] = edge.getKey();
+                    edgeTargets[state][i] = edge.getValue();
+                    i++;
+                }
+                payloads[state] = marks.get(state).isEmpty()
+                        ? NO_PAYLOAD
+                        : marks.get(state).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new SubstringAutomaton(edgeChars, edgeTargets, payloads);
+        }
+
+        // last 상태 뒤에 c 를 이어 붙인 상태. 다른 텍스트가 이미 만든 전이가 있으면 재사용한다 (일반화 접미사 오토마톤)
+        private int extend(int last, char c) {
+            Integer existing = transitions.get(last).get(c);
+            if (existing != null) {
+                return lengths.get(last) + 1 == lengths.get(existing) ? existing : split(last, c, existing);
+            }
+
+            int current = newState(lengths.get(last) + 1, 0);
+            int p = last;
+            while (p >= 0 && !transitions.get(p).containsKey(c)) {
+                transitions.get(p).put(c, current);
+                p = links.get(p);
+            }
+            if (p >= 0) {
+                int q = transitions.get(p).get(c);
+                links.set(current, lengths.get(p) + 1 == lengths.get(q) ? q : split(p, c, q));
+            }
+            return current;
+        }
+
+        // q 에서 길이 len(p)+1 까지의 부분을 떼어 새 상태로 만들고 p 쪽 전이를 옮긴다
+        private int split(int p, char c, int q) {
+            int clone = newState(lengths.get(p) + 1, links.get(q));
+            transitions.get(clone).putAll(transitions.get(q));
+            links.set(q, clone);
+            while (p >= 0 && Integer.valueOf(q).equals(transitions.get(p).get(c))) {
+                transitions.get(p).put(c, clone);
+                p = links.get(p);
+            }
+            return clone;
+        }
+
+        private int newState(int length, int link) {
+            transitions.add(new TreeMap<>());
+            links.add(link);
+            lengths.add(length);
+            return transitions.size() - 1;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.easytrax.easytraxbackend.project.application;
 
 import com.easytrax.easytraxbackend.global.code.status.ErrorStatus;
 import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.global.s3.S3UploadService;
+import com.easytrax.easytraxbackend.hscode.domain.repository.ProductInfoRepository;
 import com.easytrax.easytraxbackend.project.api.dto.request.ProjectCreateRequest;
 import com.easytrax.easytraxbackend.project.api.dto.request.ProjectUpdateRequest;
 import com.easytrax.easytraxbackend.project.api.dto.response.ProjectListResponse;
@@ -13,18 +15,28 @@ import com.easytrax.easytraxbackend.project.domain.repository.ProjectRepository;
 import com.easytrax.easytraxbackend.user.domain.User;
 import com.easytrax.easytraxbackend.user.domain.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProductInfoRepository productInfoRepository;
+    private final S3UploadService s3UploadService;
 
     @Transactional
     public ProjectResponse createProject(Long userId, ProjectCreateRequest request) {
@@ -76,7 +88,34 @@ public class ProjectService {
         if (!projectRepository.existsByIdAndUserId(projectId, userId)) {
             throw new GeneralException(ErrorStatus.PROJECT_NOT_FOUND);
         }
+
+        List<String> imageUrls = productInfoRepository.findImageUrlsByProjectId(projectId);
+        productInfoRepository.deleteByProjectId(projectId);
         projectRepository.deleteById(projectId);
+
+        if (!imageUrls.isEmpty()) {
+            Set<String> orphanedUrls = new HashSet<>(imageUrls);
+            productInfoRepository.findReferencedImageUrls(imageUrls).forEach(orphanedUrls::remove);
+            deleteImagesAfterCommit(orphanedUrls);
+        }
+    }
+
+    // 롤백되면 이미지를 지우면 안 되므로 커밋 후에 삭제 큐에 넣는다
+    private void deleteImagesAfterCommit(Set<String> imageUrls) {
+        if (imageUrls.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // 프로젝트는 이미 지워졌으므로 응답을 실패로 바꾸지 않고 남은 객체만 기록한다
+                try {
+                    s3UploadService.deleteFilesLater(imageUrls);
+                } catch (GeneralException e) {
+                    log.error("삭제한 프로젝트의 이미지를 삭제 큐에 넣지 못했습니다 ({}개): {}", imageUrls.size(), imageUrls);
+                }
+            }
+        });
     }
 
     @Transactional
@@ -0,0 +1,229 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiCallGuardTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void opensWhenFailureRateIsReachedAndRejectsWhileOpen() {
+        GeminiCallGuard guard = guard(4);
+        succeed(guard);
+        succeed(guard);
+        fail(guard, 503);
+        assertFalse(guard.isOpen());
+        fail(guard, 429);
+
+        // 4건 중 2건 실패 (50%) 로 열리면 호출하지 않고 바로 거절한다
+        assertTrue(guard.isOpen());
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(GeminiUnavailableException.class, () -> guard.execute(calls::incrementAndGet));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void halfOpenProbeSuccessClosesCircuit() throws Exception {
+        GeminiCallGuard guard = openedGuard();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        assertFalse(guard.isOpen());
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> probe = callers.submit(() -> guard.execute(() -> {
+            started.countDown();
+            await(release);
+            return "probe";
+        }));
+        await(started);
+
+        // probe 자리(1)가 차 있는 동안 다른 호출은 거절된다
+        assertTrue(guard.isOpen());
+        assertThrows(GeminiUnavailableException.class, () -> guard.execute(() -> "other"));
+
+        release.countDown();
+        assertEquals("probe", probe.get(5, TimeUnit.SECONDS));
+        assertFalse(guard.isOpen());
+
+        // 닫히면 창이 비워져 실패 한 건으로는 다시 열리지 않는다
+        fail(guard, 503);
+        assertFalse(guard.isOpen());
+        assertEquals("ok", guard.execute(() -> "ok"));
+    }
+
+    @Test
+    void halfOpenProbeFailureReopensCircuit() throws Exception {
+        GeminiCallGuard guard = openedGuard();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        assertFalse(guard.isOpen());
+
+        fail(guard, 500);
+
+        assertTrue(guard.isOpen());
+        assertThrows(GeminiUnavailableException.class, () -> guard.execute(() -> "ok"));
+    }
+
+    @Test
+    void localRejectionIsNotCountedAsFailure() {
+        GeminiCallGuard guard = guard(4);
+
+        // GeminiClient 자체 슬롯이 모자라 거절된 호출은 Gemini 상태와 무관하다
+        for (int i = 0; i < 8; i++) {
+            assertThrows(GeminiUnavailableException.class, () -> guard.execute(() -> {
+                throw new GeminiUnavailableException("Gemini 동시 요청 한도 초과");
+            }));
+        }
+
+        assertFalse(guard.isOpen());
+        assertEquals(4.0, limit(), 0.0001);
+        assertEquals(0.0, gauge("gemini.guard.in-flight"), 0.0001);
+    }
+
+    @Test
+    void failureCutsLimitAndSuccessRaisesIt() {
+        GeminiCallGuard guard = guard(4);
+
+        fail(guard, 503);
+        assertEquals(2.0, limit(), 0.0001);
+
+        succeed(guard);
+        assertEquals(2.5, limit(), 0.0001);
+    }
+
+    @Test
+    void callerErrorDoesNotCutLimit() {
+        GeminiCallGuard guard = guard(4);
+
+        fail(guard, 400);
+
+        assertEquals(4.25, limit(), 0.0001);
+        assertFalse(guard.isOpen());
+    }
+
+    @Test
+    void degradedLatencyCutsLimit() {
+        GeminiCallGuard guard = guard(4);
+
+        attempt(guard, Duration.ofMillis(10));
+        assertEquals(4.25, limit(), 0.0001);
+
+        // 평소(10ms)의 2배를 넘으면 성공이어도 줄인다
+        attempt(guard, Duration.ofMillis(50));
+        assertEquals(2.125, limit(), 0.0001);
+    }
+
+    @Test
+    void rejectsCallsOverLimit() throws Exception {
+        GeminiCallGuard guard = guard(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> running = callers.submit(() -> guard.execute(() -> {
+            started.countDown();
+            await(release);
+            return "running";
+        }));
+        await(started);
+
+        assertThrows(GeminiUnavailableException.class, () -> guard.execute(() -> "over"));
+
+        release.countDown();
+        assertEquals("running", running.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void retryBackoffIsNotCountedAsLatency() {
+        GeminiCallGuard guard = new GeminiCallGuard("test", new GeminiCallGuard.Settings(
+                4, 1, 0.5, Duration.ofMillis(100), OPEN_DURATION, 1, 4, 1, 8, 0.5, 2.0), meterRegistry);
+
+        // 첫 시도 503, 백오프 200ms 뒤 두 번째 시도 성공. 호출 전체는 느린 호출 기준(100ms)을 넘는다
+        assertEquals("ok", guard.execute(() -> {
+            GeminiCallGuard.recordAttempt(Duration.ofMillis(5).toNanos(), true);
+            sleep(200);
+            GeminiCallGuard.recordAttempt(Duration.ofMillis(5).toNanos(), false);
+            return "ok";
+        }));
+
+        // 시도별로 한도를 줄였다가 (4 → 2) 올리고 (2 → 2.5), 호출은 느린 호출로 치지 않는다
+        assertEquals(2.5, limit(), 0.0001);
+        assertFalse(guard.isOpen());
+    }
+
+    private GeminiCallGuard guard(int initialLimit) {
+        return new GeminiCallGuard("test", new GeminiCallGuard.Settings(
+                4, 4, 0.5, Duration.ofSeconds(1), OPEN_DURATION, 1, initialLimit, 1, 8, 0.5, 2.0), meterRegistry);
+    }
+
+    private GeminiCallGuard openedGuard() {
+        GeminiCallGuard guard = guard(4);
+        for (int i = 0; i < 4; i++) {
+            fail(guard, 503);
+        }
+        assertTrue(guard.isOpen());
+        return guard;
+    }
+
+    private static void succeed(GeminiCallGuard guard) {
+        assertEquals("ok", guard.execute(() -> "ok"));
+    }
+
+    private static void fail(GeminiCallGuard guard, int status) {
+        assertThrows(GeminiClientException.class, () -> guard.execute(() -> {
+            throw new GeminiClientException(status, "status=" + status);
+        }));
+    }
+
+    // GeminiClient 가 시도 지연을 알린 것처럼 호출한다
+    private static void attempt(GeminiCallGuard guard, Duration latency) {
+        guard.execute(() -> {
+            GeminiCallGuard.recordAttempt(latency.toNanos(), false);
+            return "ok";
+        });
+    }
+
+    private double limit() {
+        return gauge("gemini.guard.limit");
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("operation", "test").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 로컬 HTTP 스텁 서버로 동시 요청 한도 / 커넥션 재사용 / 재시도 / Retry-After / hedge 동작을 확인한다
+class GeminiClientTest {
+
+    private static final String OK_BODY = "{\"candidates\":[]}";
+    private static final Map<String, Object> REQUEST = Map.of("contents", List.of());
+    // 모델 출력 {"hsCode":"1902.30"} 를 두 조각으로 보내는 SSE 스트림
+    private static final String SSE_BODY = """
+            data: {"candidates":[{"content":{"parts":[{"text":"{\\"hsCode\\":"}]}}]}
+
+            data: {"candidates":[{"content":{"parts":[{"text":"\\"1902.30\\"}"}]}}]}
+
+            """;
+
+    private record Classification(String hsCode, Double confidence) {
+    }
+
+    private record StubResponse(int status, String retryAfter, long delayMillis, String body) {
+    }
+
+    private final ConcurrentLinkedQueue<StubResponse> script = new ConcurrentLinkedQueue<>();
+    private final List<Long> receivedAt = new CopyOnWriteArrayList<>();
+    private final List<Integer> remotePorts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private GeminiClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (client != null) {
+            client.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void capsConcurrentRequestsAndFailsFastWhenNoSlotFreesUp() throws Exception {
+        client = newClient(1, false, 2, Duration.ofMillis(200));
+        for (int i = 0; i < 3; i++) {
+            script.add(new StubResponse(200, null, 1_000, OK_BODY));
+        }
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                calls.add(callers.submit(() -> client.generateContent("classification", REQUEST)));
+            }
+
+            // 두 요청이 1초 동안 슬롯을 잡고 있으므로 세 번째는 acquire-timeout 뒤 보내지 않고 실패한다
+            int succeeded = 0;
+            int rejected = 0;
+            for (Future<String> call : calls) {
+                try {
+                    assertEquals(OK_BODY, call.get(5, TimeUnit.SECONDS));
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(GeminiUnavailableException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            assertEquals(2, succeeded);
+            assertEquals(1, rejected);
+            assertEquals(2, receivedAt.size());
+            assertEquals(2, maxActive.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void failsFastWhenAllBodyWritersAreBusy() {
+        // 동시 요청 한도 1 이면 본문 작성 스레드는 2 개다
+        client = newClient(1, false, 1, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        GeminiClient.RequestBodyWriter stuck = generator -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try {
+            // 마감 시간이 지나도 작성 스레드는 본문을 쓰는 중이라 돌아오지 않는다
+            for (int i = 0; i < 2; i++) {
+                assertThrows(GeminiClientException.class,
+                        () -> client.generateContent("ocr", stuck, Duration.ofMillis(300)));
+            }
+
+            // 본문을 메모리에 쌓아 보내지 않고 acquire-timeout 뒤 실패한다
+            GeminiClientException failure = assertThrows(GeminiClientException.class,
+                    () -> client.generateContent("ocr", generator -> generator.writeObject(REQUEST)));
+            assertInstanceOf(GeminiUnavailableException.class, failure);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void reusesKeepAliveConnectionAcrossRequests() {
+        client = newClient(1, false);
+        for (int i = 0; i < 5; i++) {
+            script.add(new StubResponse(200, null, 0, OK_BODY));
+            assertEquals(OK_BODY, client.generateContent("classification", REQUEST));
+        }
+
+        // 요청마다 새로 연결하지 않고 하나의 커넥션으로 보낸다
+        assertEquals(1, remotePorts.stream().distinct().count());
+    }
+
+    @Test
+    void retriesTooManyRequestsAfterRetryAfter() {
+        client = newClient(3, false);
+        script.add(new StubResponse(429, "1", 0, "{}"));
+        script.add(new StubResponse(200, null, 0, OK_BODY));
+
+        assertEquals(OK_BODY, client.generateContent("classification", REQUEST));
+
+        assertEquals(2, receivedAt.size());
+        long waitedMillis = (receivedAt.get(1) - receivedAt.get(0)) / 1_000_000;
+        assertTrue(waitedMillis >= 900, "Retry-After 1초보다 일찍 재시도함: " + waitedMillis + "ms");
+    }
+
+    @Test
+    void retriesServerErrorsUntilMaxAttempts() {
+        client = newClient(3, false);
+        script.add(new StubResponse(503, null, 0, "{}"));
+        script.add(new StubResponse(500, null, 0, "{}"));
+        script.add(new StubResponse(502, null, 0, "{}"));
+
+        GeminiClientException failure = assertThrows(GeminiClientException.class,
+                () -> client.generateContent("classification", REQUEST));
+
+        assertEquals(502, failure.getStatusCode());
+        assertEquals(3, receivedAt.size());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        client = newClient(3, false);
+        script.add(new StubResponse(400, null, 0, "{}"));
+
+        GeminiClientException failure = assertThrows(GeminiClientException.class,
+                () -> client.generateContent("classification", REQUEST));
+
+        assertEquals(400, failure.getStatusCode());
+        assertEquals(1, receivedAt.size());
+    }
+
+    @Test
+    void hedgesRequestStuckInLatencyTail() {
+        client = newClient(1, true);
+        warmUp("classification");
+        receivedAt.clear();
+
+        // 원래 요청은 오래 걸리고 hedge 요청은 바로 답한다
+        script.add(new StubResponse(200, null, 3_000, "{\"slow\":true}"));
+        script.add(new StubResponse(200, null, 0, OK_BODY));
+
+        long start = System.nanoTime();
+        String body = client.generateContent("classification", REQUEST);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(OK_BODY, body);
+        assertEquals(2, receivedAt.size());
+        assertTrue(elapsedMillis < 2_000, "hedge 응답을 기다리지 않고 원래 요청을 기다림: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void keepsHedgingSamplesPerOperation() {
+        client = newClient(1, true);
+        warmUp("ocr");
+        receivedAt.clear();
+
+        // 분류 작업은 아직 표본이 없으므로 느려도 hedge 하지 않는다
+        script.add(new StubResponse(200, null, 500, OK_BODY));
+
+        assertEquals(OK_BODY, client.generateContent("classification", REQUEST));
+        assertEquals(1, receivedAt.size());
+    }
+
+    @Test
+    void streamReturnsFirstJsonAndHedgesUntilHeadersArrive() {
+        client = newClient(1, true);
+        for (int i = 0; i < 5; i++) {
+            script.add(new StubResponse(200, null, 0, SSE_BODY));
+            assertEquals("{\"hsCode\":\"1902.30\"}", client.streamFirstJson("ocr", REQUEST));
+        }
+        receivedAt.clear();
+
+        // 원래 스트림은 헤더부터 늦고, hedge 스트림이 먼저 열린다
+        script.add(new StubResponse(200, null, 3_000, SSE_BODY));
+        script.add(new StubResponse(200, null, 0, SSE_BODY));
+
+        long start = System.nanoTime();
+        String json = client.streamFirstJson("ocr", REQUEST);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("{\"hsCode\":\"1902.30\"}", json);
+        assertEquals(2, receivedAt.size());
+        assertTrue(elapsedMillis < 2_000, "스트림 hedge 가 동작하지 않음: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void readsCandidateJsonIntoRecordSkippingUnknownFields() throws IOException {
+        client = newClient(1, false);
+        String response = """
+                {"candidates":[{"finishReason":"STOP","content":{"role":"model","parts":[
+                  {"thought":true},
+                  {"text":"{\\"hsCode\\":\\"1902.30\\",\\"confidence\\":0.92,\\"reason\\":\\"라면 \\\\\\"컵\\\\\\"\\"}"}
+                ]}}],"usageMetadata":{"totalTokenCount":42}}
+                """;
+
+        Classification parsed = client.readCandidateJson(response, Classification.class);
+
+        assertEquals("1902.30", parsed.hsCode());
+        assertEquals(0.92, parsed.confidence(), 1e-9);
+    }
+
+    @Test
+    void readCandidateJsonReturnsNullWithoutText() throws IOException {
+        client = newClient(1, false);
+
+        assertNull(client.readCandidateJson("{\"candidates\":[]}", Classification.class));
+        assertNull(client.readCandidateJson("{\"promptFeedback\":{\"blockReason\":\"SAFETY\"}}", Classification.class));
+        assertNull(client.readCandidateJson(
+                "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":123}]}}]}", Classification.class));
+    }
+
+    // hedge 지연을 계산할 만큼 빠른 응답 표본을 쌓는다
+    private void warmUp(String operation) {
+        for (int i = 0; i < 5; i++) {
+            script.add(new StubResponse(200, null, 0, OK_BODY));
+            client.generateContent(operation, REQUEST);
+        }
+    }
+
+    private GeminiClient newClient(int maxAttempts, boolean hedging) {
+        return newClient(maxAttempts, hedging, 8, Duration.ofSeconds(1));
+    }
+
+    private GeminiClient newClient(int maxAttempts, boolean hedging, int maxConcurrentRequests, Duration acquireTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        return new GeminiClient(httpClient, "http://127.0.0.1:" + server.getAddress().getPort(), "test-key", "test-model",
+                maxConcurrentRequests, Duration.ofSeconds(10), acquireTimeout,
+                new GeminiRetryPolicy(maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50)),
+                new GeminiRetryBudget(1.0, 10),
+                () -> new GeminiHedgingPolicy(hedging, 0.95, 100, 5, Duration.ofMillis(200)),
+                new SimpleMeterRegistry());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        receivedAt.add(System.nanoTime());
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            respond(exchange);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+
+        StubResponse response = script.poll();
+        if (response == null) {
+            response = new StubResponse(500, null, 0, "{\"error\":\"no scripted response\"}");
+        }
+        if (response.delayMillis() > 0) {
+            try {
+                Thread.sleep(response.delayMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (response.retryAfter() != null) {
+            exchange.getResponseHeaders().add("Retry-After", response.retryAfter());
+        }
+
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException ignored) {
+            // 취소된 요청
+        }
+        exchange.close();
+    }
+}
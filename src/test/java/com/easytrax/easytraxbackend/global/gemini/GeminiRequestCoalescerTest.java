@@ -0,0 +1,282 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeminiRequestCoalescerTest {
+
+    private static final String HASH = GeminiRequestCoalescer.hash("classification", "model", "prompt");
+
+    private final FakeRedis redis = new FakeRedis();
+    private final List<GeminiRequestCoalescer> nodes = new ArrayList<>();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        nodes.forEach(GeminiRequestCoalescer::shutdown);
+    }
+
+    @Test
+    void concurrentLocalCallersShareOneCall() throws Exception {
+        GeminiRequestCoalescer node = node(Duration.ofSeconds(30));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> call = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "result";
+        };
+
+        Future<String> first = callers.submit(() -> node.execute(HASH, call));
+        awaitCondition(() -> calls.get() == 1);
+        Future<String> second = callers.submit(() -> node.execute(HASH, call));
+        // 두 번째 호출자가 진행 중인 future 에 합류할 때까지 기다린다
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("result", first.get(5, TimeUnit.SECONDS));
+        assertEquals("result", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void remoteWaiterIsWokenByPublishedResult() throws Exception {
+        GeminiRequestCoalescer leader = node(Duration.ofSeconds(30));
+        GeminiRequestCoalescer follower = node(Duration.ofSeconds(30));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger followerCalls = new AtomicInteger();
+
+        Future<String> leading = callers.submit(() -> leader.execute(HASH, () -> {
+            await(release);
+            return "leader-result";
+        }));
+        awaitCondition(() -> redis.values.containsKey("gemini:inflight:" + HASH));
+        Future<String> following = callers.submit(() -> follower.execute(HASH, () -> {
+            followerCalls.incrementAndGet();
+            return "follower-result";
+        }));
+        awaitCondition(() -> redis.hasKeyChecks.get() > 0);
+        release.countDown();
+
+        assertEquals("leader-result", leading.get(5, TimeUnit.SECONDS));
+        // lock-ttl(30s) 재확인 전에 pub/sub 알림으로 깨어나야 한다
+        assertEquals("leader-result", following.get(5, TimeUnit.SECONDS));
+        assertEquals(0, followerCalls.get());
+        assertEquals(1, redis.published.get());
+    }
+
+    @Test
+    void storedResultIsReusedWithinResultTtl() {
+        GeminiRequestCoalescer first = node(Duration.ofSeconds(30));
+        GeminiRequestCoalescer second = node(Duration.ofSeconds(30));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("result", first.execute(HASH, () -> {
+            calls.incrementAndGet();
+            return "result";
+        }));
+        assertEquals("result", second.execute(HASH, () -> {
+            calls.incrementAndGet();
+            return "second-result";
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(Duration.ofSeconds(45), redis.ttls.get("gemini:result:" + HASH));
+        // 호출이 끝나면 락은 풀린다
+        assertFalse(redis.values.containsKey("gemini:inflight:" + HASH));
+    }
+
+    @Test
+    void callsDirectlyWhenRemoteLockIsLostWithoutResult() throws Exception {
+        GeminiRequestCoalescer node = node(Duration.ofMillis(200));
+        // 다른 노드가 락을 잡은 채 죽었다
+        redis.values.put("gemini:inflight:" + HASH, "dead-owner");
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<String> waiting = callers.submit(() -> node.execute(HASH, () -> {
+            calls.incrementAndGet();
+            return "own-result";
+        }));
+        awaitCondition(() -> redis.hasKeyChecks.get() > 0);
+        redis.values.remove("gemini:inflight:" + HASH);
+
+        // 알림이 없어도 lock-ttl 마다 다시 확인해 락이 사라졌으면 직접 호출한다
+        assertEquals("own-result", waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void callsDirectlyWhenRedisFails() {
+        GeminiRequestCoalescer node = node(Duration.ofSeconds(30));
+        redis.down = true;
+
+        assertEquals("direct", node.execute(HASH, () -> "direct"));
+        assertEquals("direct", node.execute(HASH, () -> "direct"));
+    }
+
+    @Test
+    void failedCallIsNotStoredAndWakesWaiters() {
+        GeminiRequestCoalescer node = node(Duration.ofSeconds(30));
+
+        assertThrows(IllegalStateException.class, () -> node.execute(HASH, () -> {
+            throw new IllegalStateException("gemini down");
+        }));
+
+        // 실패는 공유하지 않고 락을 풀어 기다리던 노드가 바로 직접 호출하게 한다
+        assertFalse(redis.values.containsKey("gemini:result:" + HASH));
+        assertFalse(redis.values.containsKey("gemini:inflight:" + HASH));
+        assertEquals(1, redis.published.get());
+        assertEquals("retried", node.execute(HASH, () -> "retried"));
+    }
+
+    private GeminiRequestCoalescer node(Duration lockTtl) {
+        GeminiRequestCoalescer node = new GeminiRequestCoalescer(new FakeRedisTemplate(redis), new FakeContainer(redis),
+                lockTtl, Duration.ofSeconds(45), Duration.ofSeconds(2), Duration.ofSeconds(1));
+        node.subscribeDone();
+        nodes.add(node);
+        return node;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitCondition(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    // 노드들이 함께 보는 Redis: 문자열 값, 만료 시간, pub/sub 구독자
+    private static final class FakeRedis {
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, Duration> ttls = new ConcurrentHashMap<>();
+        private final List<MessageListener> listeners = new CopyOnWriteArrayList<>();
+        private final AtomicInteger hasKeyChecks = new AtomicInteger();
+        private final AtomicInteger published = new AtomicInteger();
+        private volatile boolean down;
+
+        private void checkUp() {
+            if (down) {
+                throw new RedisConnectionFailureException("redis down");
+            }
+        }
+    }
+
+    private static final class FakeRedisTemplate extends RedisTemplate<String, String> {
+
+        private final FakeRedis redis;
+        private final ValueOperations<String, String> values;
+
+        @SuppressWarnings("unchecked")
+        private FakeRedisTemplate(FakeRedis redis) {
+            this.redis = redis;
+            this.values = mock(ValueOperations.class);
+            when(values.get(anyString())).thenAnswer(invocation -> {
+                redis.checkUp();
+                return redis.values.get(invocation.<String>getArgument(0));
+            });
+            when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+                redis.checkUp();
+                String key = invocation.getArgument(0);
+                redis.ttls.put(key, invocation.getArgument(2));
+                return redis.values.putIfAbsent(key, invocation.getArgument(1)) == null;
+            });
+            doAnswer(invocation -> {
+                redis.checkUp();
+                redis.values.put(invocation.getArgument(0), invocation.getArgument(1));
+                redis.ttls.put(invocation.getArgument(0), invocation.getArgument(2));
+                return null;
+            }).when(values).set(anyString(), anyString(), any(Duration.class));
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return values;
+        }
+
+        @Override
+        public Boolean hasKey(String key) {
+            redis.checkUp();
+            redis.hasKeyChecks.incrementAndGet();
+            return redis.values.containsKey(key);
+        }
+
+        // 락 해제(del)와 연장(pexpire) 스크립트만 흉내 낸다
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            redis.checkUp();
+            String key = keys.get(0);
+            boolean owned = args[0].equals(redis.values.get(key));
+            if (owned && script.getScriptAsString().contains("'del'")) {
+                redis.values.remove(key);
+            }
+            return (T) Long.valueOf(owned ? 1 : 0);
+        }
+
+        @Override
+        public Long convertAndSend(String channel, Object message) {
+            redis.checkUp();
+            redis.published.incrementAndGet();
+            DefaultMessage published = new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+                    message.toString().getBytes(StandardCharsets.UTF_8));
+            redis.listeners.forEach(listener -> listener.onMessage(published, null));
+            return (long) redis.listeners.size();
+        }
+    }
+
+    private static final class FakeContainer extends RedisMessageListenerContainer {
+
+        private final FakeRedis redis;
+
+        private FakeContainer(FakeRedis redis) {
+            this.redis = redis;
+        }
+
+        @Override
+        public void addMessageListener(MessageListener listener, Topic topic) {
+            redis.listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.easytrax.easytraxbackend.global.gemini;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonCompletionScannerTest {
+
+    @Test
+    void completesWhenObjectClosesAcrossChunks() {
+        JsonCompletionScanner scanner = new JsonCompletionScanner();
+
+        assertFalse(scanner.feed("{\"hsCode\": \"1902"));
+        assertFalse(scanner.feed(".30\", \"confidence\": 0.9"));
+        assertTrue(scanner.feed("} 이후 설명은 무시"));
+
+        assertEquals("{\"hsCode\": \"1902.30\", \"confidence\": 0.9}", scanner.result());
+    }
+
+    @Test
+    void ignoresBracesAndEscapedQuotesInsideStrings() {
+        JsonCompletionScanner scanner = new JsonCompletionScanner();
+
+        assertFalse(scanner.feed("{\"reason\": \"괄호 } 와 ] 그리고 \\\"따옴표 }\\\" 포함"));
+        assertFalse(scanner.feed("\\\\"));
+        assertTrue(scanner.feed("\"}"));
+
+        assertEquals("{\"reason\": \"괄호 } 와 ] 그리고 \\\"따옴표 }\\\" 포함\\\\\"}", scanner.result());
+    }
+
+    @Test
+    void tracksNestedObjectsAndArrays() {
+        JsonCompletionScanner scanner = new JsonCompletionScanner();
+
+        assertFalse(scanner.feed("[{\"index\": 0, \"tags\": [\"a\", {\"b\": []}]},"));
+        assertFalse(scanner.feed(" {\"index\": 1}"));
+        assertTrue(scanner.feed("]\n[\"두 번째 값\"]"));
+
+        assertEquals("[{\"index\": 0, \"tags\": [\"a\", {\"b\": []}]}, {\"index\": 1}]", scanner.result());
+    }
+
+    @Test
+    void skipsLeadingProseAndCodeFence() {
+        JsonCompletionScanner scanner = new JsonCompletionScanner();
+
+        assertFalse(scanner.feed("분석 결과입니다.\n```json\n"));
+        assertTrue(scanner.feed("{\"a\": 1}\n```"));
+
+        assertEquals("{\"a\": 1}", scanner.result());
+    }
+
+    @Test
+    void returnsWholeTextWhenJsonNeverCloses() {
+        JsonCompletionScanner scanner = new JsonCompletionScanner();
+
+        assertFalse(scanner.feed("앞 문장 {\"a\": [1, 2"));
+
+        assertFalse(scanner.isComplete());
+        assertEquals("앞 문장 {\"a\": [1, 2", scanner.result());
+    }
+
+    @Test
+    void ignoresChunksAfterCompletion() {
+        JsonCompletionScanner scanner = new JsonCompletionScanner();
+
+        assertTrue(scanner.feed("{}"));
+        assertTrue(scanner.feed("{\"more\": true}"));
+
+        assertEquals("{}", scanner.result());
+    }
+}
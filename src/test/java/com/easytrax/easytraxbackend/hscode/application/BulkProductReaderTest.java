@@ -0,0 +1,108 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.global.exception.GeneralException;
+import com.easytrax.easytraxbackend.project.domain.Country;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkProductReaderTest {
+
+    @Test
+    void readsQuotedCsvFieldsWithCommasNewlinesAndEscapedQuotes() throws IOException {
+        List<BulkProductReader.Row> rows = readAll("products.csv", """
+                \uFEFFproductName,material,description
+                "라면, 매운맛",밀가루,"첫 줄
+                둘째 줄"
+                "5"" 접시",도자기,
+                """);
+
+        assertEquals(2, rows.size());
+        assertEquals("라면, 매운맛", rows.get(0).productName());
+        assertEquals("밀가루", rows.get(0).material());
+        assertEquals("첫 줄\n둘째 줄", rows.get(0).description());
+        assertEquals(1, rows.get(0).rowNumber());
+        assertEquals("5\" 접시", rows.get(1).productName());
+        assertNull(rows.get(1).description());
+        assertEquals(2, rows.get(1).rowNumber());
+    }
+
+    @Test
+    void reportsMalformedCsvRowsWithoutStopping() throws IOException {
+        List<BulkProductReader.Row> rows = readAll("products.csv", """
+                productName,originCountry
+                ,KOREA
+                과자,ATLANTIS
+                %s,
+                커피,
+                """.formatted("가".repeat(201)));
+
+        assertEquals(4, rows.size());
+        assertEquals("제품명은 필수입니다", rows.get(0).error());
+        assertEquals("국가 코드가 올바르지 않습니다", rows.get(1).error());
+        assertEquals("제품명은 200자를 초과할 수 없습니다", rows.get(2).error());
+        assertNull(rows.get(3).error());
+        assertEquals(Country.USA, rows.get(3).originCountry());
+        assertEquals(4, rows.get(3).rowNumber());
+    }
+
+    @Test
+    void unterminatedQuoteConsumesRestOfCsvAsOneField() throws IOException {
+        List<BulkProductReader.Row> rows = readAll("products.csv", """
+                productName,material
+                "닫히지 않은,플라스틱
+                다음 행,금속
+                """);
+
+        assertEquals(1, rows.size());
+        assertEquals("닫히지 않은,플라스틱\n다음 행,금속", rows.get(0).productName());
+    }
+
+    @Test
+    void reportsMalformedJsonLinesAndSkipsBlankLines() throws IOException {
+        List<BulkProductReader.Row> rows = readAll("products.jsonl", """
+                {"productName":"녹차","targetCountry":"japan"}
+
+                {"productName":"깨진 줄"
+                {"purpose":"식용"}
+                {"productName":"홍차","material":"  "}
+                """);
+
+        assertEquals(4, rows.size());
+        assertEquals(Country.JAPAN, rows.get(0).targetCountry());
+        assertEquals(Country.USA, rows.get(0).originCountry());
+        assertEquals("JSON 형식이 올바르지 않습니다", rows.get(1).error());
+        assertEquals(2, rows.get(1).rowNumber());
+        assertEquals("제품명은 필수입니다", rows.get(2).error());
+        assertNull(rows.get(3).material());
+        assertNull(rows.get(3).error());
+    }
+
+    @Test
+    void rejectsUnknownFileType() {
+        assertThrows(GeneralException.class, () -> BulkProductReader.open(
+                new ByteArrayInputStream(new byte[0]), "products.xlsx", "application/vnd.ms-excel",
+                Country.USA, Country.KOREA));
+    }
+
+    private static List<BulkProductReader.Row> readAll(String filename, String content) throws IOException {
+        List<BulkProductReader.Row> rows = new ArrayList<>();
+        try (BulkProductReader reader = BulkProductReader.open(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), filename, null,
+                Country.USA, Country.KOREA)) {
+            BulkProductReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
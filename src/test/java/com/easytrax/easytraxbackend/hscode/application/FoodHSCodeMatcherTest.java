@@ -0,0 +1,61 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.domain.FoodHSCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FoodHSCodeMatcherTest {
+
+    private final FoodHSCodeMatcher matcher = new FoodHSCodeMatcher();
+
+    // FoodHSCode.findByKeyword 와 같은 항목을 찾아야 한다 (순서는 점수 기준이라 집합으로 비교)
+    @Test
+    void productNameMatchesSameCodesAsFindByKeyword() {
+        for (String input : List.of("라면", "컵", "신라면 큰사발", "면", "Noodles", "커피", "인스턴트", "녹차 라떼",
+                "스낵", "초콜렛 쿠키", "티", "음료", "coffee", "없는제품")) {
+            assertEquals(new HashSet<>(FoodHSCode.findByKeyword(input)),
+                    new HashSet<>(matcher.findMatches(input, null, null, null)), input);
+        }
+    }
+
+    @Test
+    void materialMatchesSameCodesAsFindByMaterial() {
+        for (String input : List.of("밀", "밀가루", "설탕", "카카오, 설탕", "우유", "배추", "플라스틱")) {
+            assertEquals(new HashSet<>(FoodHSCode.findByMaterial(input)),
+                    new HashSet<>(matcher.findMatches(null, null, null, input)), input);
+        }
+    }
+
+    @Test
+    void matchesShortInputContainedInKeyword() {
+        // "컵" 은 어떤 키워드에도 포함되지 않지만 "컵라면" 키워드가 "컵" 을 포함한다
+        assertTrue(matcher.findMatches("컵", null, null, null).contains(FoodHSCode.INSTANT_NOODLES));
+    }
+
+    @Test
+    void exactKeywordMatchWinsOverPartialMatches() {
+        assertEquals(List.of(FoodHSCode.INSTANT_NOODLES), matcher.findMatches("라면", null, null, null));
+        assertEquals(List.of(FoodHSCode.PASTA), matcher.findMatches("면", null, null, null));
+    }
+
+    @Test
+    void higherWeightedFieldSumRanksFirst() {
+        // 재질 "설탕" 은 여러 항목이 갖고 있지만 제품명(4)까지 일치하는 비스킷이 재질(3)만 일치하는 항목보다 앞선다
+        List<FoodHSCode> matches = matcher.findMatches("쿠키", null, null, "설탕");
+
+        assertEquals(FoodHSCode.BISCUITS, matches.get(0));
+        Set<FoodHSCode> unique = new HashSet<>(matches);
+        assertEquals(matches.size(), unique.size());
+    }
+
+    @Test
+    void blankInputMatchesNothing() {
+        assertTrue(matcher.findMatches(" ", "", null, null).isEmpty());
+    }
+}
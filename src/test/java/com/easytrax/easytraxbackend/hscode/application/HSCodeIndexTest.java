@@ -0,0 +1,140 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import com.easytrax.easytraxbackend.hscode.domain.HSCode;
+import com.easytrax.easytraxbackend.hscode.domain.repository.HSCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HSCodeIndexTest {
+
+    private static final List<HSCode> CATALOG = List.of(
+            code("1902301010", "라면", "Instant noodles", List.of("라면", "봉지라면", "ramen"), "밀가루, 팜유", "식용"),
+            code("1902301020", "컵라면", "Cup noodles", List.of("컵라면", "k-라면"), "밀가루, 전분", "간편식"),
+            code("1902190000", "국수", "Noodles", List.of("소면", "칼국수"), "밀가루", "식용"),
+            code("0901210000", "볶은 커피", "Roasted coffee", List.of("원두", "coffee"), "커피콩", "음료 원료"),
+            code("2101120000", "커피믹스", "Coffee mix", List.of("coffee믹스", "믹스커피"), "커피, 설탕, 크림", "음료"),
+            code("1905310000", "쿠키", null, null, null, null));
+
+    // 인덱스가 대체한 HSCodeRepository LIKE 쿼리 (LOWER(x) LIKE LOWER('%q%'), NULL 은 불일치)
+    private static final List<Function<HSCode, List<String>>> PRODUCT_NAME_FIELDS = List.of(
+            code -> listOf(code.getKoreanName()), code -> listOf(code.getEnglishName()), HSCode::getKeywords);
+    private static final List<Function<HSCode, List<String>>> MATERIAL_FIELDS = List.of(
+            code -> listOf(code.getMaterialInfo()), HSCode::getKeywords);
+    private static final List<Function<HSCode, List<String>>> USAGE_FIELDS = List.of(
+            code -> listOf(code.getUsageInfo()), HSCode::getKeywords);
+
+    private static final List<String> QUERIES = List.of(
+            "라면", "면", "라", "컵", "국수", "noodles", "NOODLE", "Coffee", "커피", "coffee믹", "k-라", "믹스",
+            "밀가루", "설탕", "식용", "음료", "원료", "ramen", "쿠키", "우동", "e");
+
+    private HSCodeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        HSCodeRepository repository = mock(HSCodeRepository.class);
+        when(repository.findAllActiveWithKeywords()).thenReturn(CATALOG);
+        index = new HSCodeIndex(repository, event -> {
+        });
+        index.reload();
+    }
+
+    @Test
+    void findByProductNameMatchesLikeQuery() {
+        for (String query : QUERIES) {
+            assertEquals(like(query, PRODUCT_NAME_FIELDS), codes(index.findByProductName(query)), query);
+        }
+    }
+
+    @Test
+    void findByMaterialMatchesLikeQuery() {
+        for (String query : QUERIES) {
+            assertEquals(like(query, MATERIAL_FIELDS), codes(index.findByMaterial(query)), query);
+        }
+    }
+
+    @Test
+    void findByUsageMatchesLikeQuery() {
+        for (String query : QUERIES) {
+            assertEquals(like(query, USAGE_FIELDS), codes(index.findByUsage(query)), query);
+        }
+    }
+
+    @Test
+    void singleCharacterQueryFindsEveryContainingCode() {
+        assertEquals(Set.of("1902301010", "1902301020", "1902190000"), codes(index.findByProductName("면")));
+    }
+
+    @Test
+    void mixedHangulAndLatinQueryMatchesAcrossScripts() {
+        assertEquals(Set.of("2101120000"), codes(index.findByProductName("coffee믹스")));
+        assertEquals(Set.of("1902301020"), codes(index.findByProductName("K-라면")));
+        assertTrue(index.findByProductName("coffee 믹스").isEmpty());
+    }
+
+    @Test
+    void reloadReadsCatalogOnlyWhenChecksumChanges() {
+        HSCodeRepository repository = mock(HSCodeRepository.class);
+        when(repository.findAllActiveWithKeywords()).thenReturn(CATALOG);
+        when(repository.findActiveCatalogChecksum()).thenReturn("6:a");
+        List<Object> events = new ArrayList<>();
+        HSCodeIndex checked = new HSCodeIndex(repository, events::add);
+
+        checked.reload();
+        checked.reload();
+        verify(repository, times(1)).findAllActiveWithKeywords();
+
+        // 체크섬이 바뀌어도 내용이 같으면 버전과 스냅샷은 그대로다
+        when(repository.findActiveCatalogChecksum()).thenReturn("6:b");
+        String version = checked.getCatalogVersion();
+        checked.reload();
+        verify(repository, times(2)).findAllActiveWithKeywords();
+        assertEquals(version, checked.getCatalogVersion());
+        assertEquals(1, events.size());
+    }
+
+    private static Set<String> like(String query, List<Function<HSCode, List<String>>> fields) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        return CATALOG.stream()
+                .filter(code -> fields.stream()
+                        .map(field -> field.apply(code))
+                        .anyMatch(values -> values != null && values.stream()
+                                .anyMatch(value -> value != null && value.toLowerCase(Locale.ROOT).contains(needle))))
+                .map(HSCode::getHsCode)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> codes(List<HSCode> codes) {
+        return codes.stream().map(HSCode::getHsCode).collect(Collectors.toSet());
+    }
+
+    private static List<String> listOf(String value) {
+        return value == null ? null : List.of(value);
+    }
+
+    private static HSCode code(String hsCode, String koreanName, String englishName, List<String> keywords,
+                               String materialInfo, String usageInfo) {
+        return HSCode.builder()
+                .hsCode(hsCode)
+                .koreanName(koreanName)
+                .englishName(englishName)
+                .keywords(keywords)
+                .materialInfo(materialInfo)
+                .usageInfo(usageInfo)
+                .level(10)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.easytrax.easytraxbackend.hscode.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MicroBatcherTest {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private MicroBatcher<Integer, String> batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void flushesWhenWindowExpires() throws Exception {
+        batcher = new MicroBatcher<>("test", recording(items -> items.stream().map(i -> "r" + i).toList()),
+                Duration.ofMillis(100), 10, 1, 16);
+
+        CompletableFuture<String> first = batcher.submit(1);
+        CompletableFuture<String> second = batcher.submit(2);
+
+        // 최대 크기(10)에 못 미쳐도 창이 닫히면 모인 만큼 처리한다
+        assertEquals("r1", first.get(2, TimeUnit.SECONDS));
+        assertEquals("r2", second.get(2, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(1, 2)), batches);
+    }
+
+    @Test
+    void flushesAsSoonAsBatchIsFull() throws Exception {
+        batcher = new MicroBatcher<>("test", recording(items -> items.stream().map(i -> "r" + i).toList()),
+                Duration.ofSeconds(30), 3, 1, 16);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            futures.add(batcher.submit(i));
+        }
+
+        // 30초 창을 기다리지 않고 크기가 차는 즉시 처리한다
+        for (CompletableFuture<String> future : futures) {
+            future.get(2, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(List.of(1, 2, 3)), batches);
+    }
+
+    @Test
+    void rejectsWhenWorkersAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MicroBatcher<>("test", recording(items -> {
+            started.countDown();
+            await(release);
+            return items.stream().map(i -> "r" + i).toList();
+        }), Duration.ofMillis(1), 1, 1, 4);
+
+        // 작업자 하나가 1 을 처리하는 동안 2 는 작업 큐에서 기다리고, 3 은 들어갈 곳이 없다
+        CompletableFuture<String> running = batcher.submit(1);
+        await(started);
+        CompletableFuture<String> queued = batcher.submit(2);
+        CompletableFuture<String> rejected = batcher.submit(3);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+
+        release.countDown();
+        assertEquals("r1", running.get(2, TimeUnit.SECONDS));
+        assertEquals("r2", queued.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsAfterClose() {
+        batcher = new MicroBatcher<>("test", recording(items -> items.stream().map(i -> "r" + i).toList()),
+                Duration.ofMillis(10), 4, 1, 4);
+        batcher.close();
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> batcher.submit(1).get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+    }
+
+    @Test
+    void routesEachResultBackToItsCaller() throws Exception {
+        // 4 에 대한 결과만 비어 있다
+        batcher = new MicroBatcher<>("test", recording(items -> items.stream().map(i -> i == 4 ? null : "r" + i).toList()),
+                Duration.ofSeconds(30), 5, 1, 16);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            futures.add(batcher.submit(i));
+        }
+
+        assertEquals("r1", futures.get(0).get(2, TimeUnit.SECONDS));
+        assertEquals("r2", futures.get(1).get(2, TimeUnit.SECONDS));
+        assertEquals("r3", futures.get(2).get(2, TimeUnit.SECONDS));
+        assertEquals("r5", futures.get(4).get(2, TimeUnit.SECONDS));
+        ExecutionException missing = assertThrows(ExecutionException.class,
+                () -> futures.get(3).get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, missing.getCause());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void handlerFailureFailsEveryCallerInBatch() {
+        batcher = new MicroBatcher<>("test", recording(items -> {
+            throw new IllegalArgumentException("bad batch");
+        }), Duration.ofSeconds(30), 2, 1, 16);
+
+        CompletableFuture<String> first = batcher.submit(1);
+        CompletableFuture<String> second = batcher.submit(2);
+
+        for (CompletableFuture<String> future : List.of(first, second)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+    }
+
+    private Function<List<Integer>, List<String>> recording(Function<List<Integer>, List<String>> handler) {
+        return items -> {
+            batches.add(List.copyOf(items));
+            return handler.apply(items);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
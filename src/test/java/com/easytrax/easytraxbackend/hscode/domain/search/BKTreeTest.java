@@ -0,0 +1,75 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BKTreeTest {
+
+    @Test
+    void findsNearestWithinMaxDistance() {
+        BKTree<String> tree = new BKTree<>();
+        tree.add(0b0000L, "zero");
+        tree.add(0b0111L, "three");
+        tree.add(0b1111_1111L, "eight");
+
+        BKTree.Match<String> match = tree.nearest(0b0011L, 2);
+
+        assertEquals("three", match.value());
+        assertEquals(1, match.distance());
+        assertEquals(0b0111L, match.hash());
+    }
+
+    @Test
+    void returnsNullWhenNothingIsCloseEnough() {
+        BKTree<String> tree = new BKTree<>();
+        tree.add(0L, "zero");
+        tree.add(-1L, "ones");
+
+        assertNull(tree.nearest(0xFFFF_FFFFL, 3));
+        assertNull(new BKTree<String>().nearest(0L, 64));
+    }
+
+    @Test
+    void sameHashOverwritesValue() {
+        BKTree<String> tree = new BKTree<>();
+        tree.add(42L, "old");
+        tree.add(42L, "new");
+
+        assertEquals(1, tree.size());
+        assertEquals("new", tree.nearest(42L, 0).value());
+    }
+
+    @Test
+    void matchesLinearScanOnRandomHashes() {
+        Random random = new Random(7);
+        long[] hashes = new long[2000];
+        BKTree<Integer> tree = new BKTree<>();
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+            tree.add(hashes[i], i);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            // 색인된 해시 근처의 질의와 무작위 질의를 섞는다
+            long query = q % 2 == 0 ? hashes[random.nextInt(hashes.length)] ^ (1L << random.nextInt(64)) : random.nextLong();
+            int maxDistance = 3 + q % 20;
+
+            int expected = Integer.MAX_VALUE;
+            for (long hash : hashes) {
+                expected = Math.min(expected, DifferenceHash.distance(hash, query));
+            }
+
+            BKTree.Match<Integer> match = tree.nearest(query, maxDistance);
+            if (expected > maxDistance) {
+                assertNull(match);
+            } else {
+                assertEquals(expected, match.distance());
+                assertEquals(expected, DifferenceHash.distance(hashes[match.value()], query));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTest {
+
+    private static final Function<String, List<String>> WHITESPACE = text -> text.isBlank()
+            ? List.of()
+            : Arrays.asList(text.trim().split("\\s+"));
+
+    // 제품명 3, 설명 1
+    private static final double[] FIELD_WEIGHTS = {3.0, 1.0};
+
+    @Test
+    void rareTermOutranksCommonTerm() {
+        Bm25Index index = Bm25Index.build(List.of(
+                new String[]{"라면 면", "밀가루 면"},
+                new String[]{"국수 면", "밀가루 면"},
+                new String[]{"파스타 면", "듀럼밀 면"}), FIELD_WEIGHTS, WHITESPACE);
+
+        double[] scores = index.score(Set.of("라면", "면"), all(index));
+
+        // "면" 은 모든 문서에 있어 점수 차이를 만들지 못하고, 드문 "라면" 이 순위를 정한다
+        assertTrue(scores[0] > scores[1]);
+        assertEquals(scores[1], scores[2], 1e-9);
+    }
+
+    @Test
+    void weightedFieldOutranksDescriptionMatch() {
+        Bm25Index index = Bm25Index.build(List.of(
+                new String[]{"설탕", "과자 원료"},
+                new String[]{"과자", "설탕 사용"},
+                new String[]{"커피", "원두"}), FIELD_WEIGHTS, WHITESPACE);
+
+        double[] scores = index.score(Set.of("설탕"), all(index));
+
+        assertTrue(scores[0] > scores[1]);
+        assertEquals(0.0, scores[2], 0.0);
+    }
+
+    @Test
+    void longDocumentIsNormalizedDown() {
+        Bm25Index index = Bm25Index.build(List.of(
+                new String[]{"차", "녹차"},
+                new String[]{"차", "녹차 홍차 보리차 옥수수차 결명자차 둥굴레차 유자차 생강차 대추차 모과차"},
+                new String[]{"커피", "원두"}), FIELD_WEIGHTS, WHITESPACE);
+
+        double[] scores = index.score(Set.of("녹차"), all(index));
+
+        assertTrue(scores[0] > scores[1]);
+    }
+
+    @Test
+    void scoresOnlyCandidatesAndIgnoresUnknownTerms() {
+        Bm25Index index = Bm25Index.build(List.of(
+                new String[]{"라면", ""},
+                new String[]{"라면", ""}), FIELD_WEIGHTS, WHITESPACE);
+        BitSet onlySecond = new BitSet();
+        onlySecond.set(1);
+
+        double[] scores = index.score(Set.of("라면", "없는단어"), onlySecond);
+
+        assertEquals(0.0, scores[0], 0.0);
+        assertTrue(scores[1] > 0);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void scoresAreNeverNegativeForTermsInEveryDocument() {
+        Bm25Index index = Bm25Index.build(List.of(
+                new String[]{"면", ""},
+                new String[]{"면", ""},
+                new String[]{"면", ""}), FIELD_WEIGHTS, WHITESPACE);
+
+        for (double score : index.score(Set.of("면"), all(index))) {
+            assertTrue(score > 0);
+        }
+    }
+
+    private static BitSet all(Bm25Index index) {
+        BitSet candidates = new BitSet();
+        candidates.set(0, index.size());
+        return candidates;
+    }
+}
@@ -0,0 +1,84 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DifferenceHashTest {
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertEquals(0, DifferenceHash.distance(0x1234L, 0x1234L));
+        assertEquals(64, DifferenceHash.distance(0L, -1L));
+        assertEquals(4, DifferenceHash.distance(0b1010L, 0b0101L));
+    }
+
+    @Test
+    void brighterToDarkerStepsSetBits() {
+        // 왼쪽이 밝고 오른쪽으로 갈수록 어두우면 모든 비트가 1
+        BufferedImage gradient = new BufferedImage(90, 80, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < gradient.getWidth(); x++) {
+            int level = 255 - x * 255 / (gradient.getWidth() - 1);
+            for (int y = 0; y < gradient.getHeight(); y++) {
+                gradient.setRGB(x, y, new Color(level, level, level).getRGB());
+            }
+        }
+
+        assertEquals(-1L, DifferenceHash.of(gradient));
+        assertEquals(0L, DifferenceHash.of(new BufferedImage(90, 80, BufferedImage.TYPE_INT_RGB)));
+    }
+
+    @Test
+    void resizedImageStaysCloseAndDifferentImageDoesNot() {
+        BufferedImage original = label(640, 480, "라면");
+        BufferedImage resized = scale(original, 320, 240);
+        BufferedImage other = label(640, 480, "커피");
+        flipHorizontally(other);
+
+        long hash = DifferenceHash.of(original);
+
+        assertTrue(DifferenceHash.distance(hash, DifferenceHash.of(resized)) <= 3);
+        assertTrue(DifferenceHash.distance(hash, DifferenceHash.of(other)) > 10);
+    }
+
+    private static BufferedImage label(int width, int height, String text) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < width; x += 40) {
+            graphics.setColor(new Color((x * 7) % 256, (x * 3) % 256, 255 - (x % 256)));
+            graphics.fillRect(x, 0, 40, height);
+        }
+        graphics.setColor(Color.WHITE);
+        graphics.fillOval(width / 4, height / 4, width / 2, height / 2);
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(text, width / 2, height / 2);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    private static void flipHorizontally(BufferedImage image) {
+        int width = image.getWidth();
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < width / 2; x++) {
+                int left = image.getRGB(x, y);
+                image.setRGB(x, y, image.getRGB(width - 1 - x, y));
+                image.setRGB(width - 1 - x, y, left);
+            }
+        }
+    }
+}
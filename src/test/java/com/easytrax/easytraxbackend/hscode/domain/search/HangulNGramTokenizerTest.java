@@ -0,0 +1,41 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HangulNGramTokenizerTest {
+
+    @Test
+    void normalizeComposesJamoAndLowercases() {
+        // 자모로 분리된 "라면" (NFD) 도 음절로 합쳐진다
+        String decomposed = "\u1105\u1161\u1106\u1167\u11ab";
+
+        assertEquals("라면 ramen", HangulNGramTokenizer.normalize(" " + decomposed + " RAMEN "));
+        assertEquals("", HangulNGramTokenizer.normalize(null));
+    }
+
+    @Test
+    void singleCharacterWordIsItsOwnGram() {
+        assertEquals(Set.of("면"), HangulNGramTokenizer.bigrams("면"));
+        assertEquals(Set.of("라", "면", "라면"), HangulNGramTokenizer.substringIndexGrams("라면"));
+    }
+
+    @Test
+    void mixedHangulAndLatinStayInOneWord() {
+        assertEquals(List.of("k", "라면", "cup2"), HangulNGramTokenizer.words("k-라면 cup2"));
+        assertEquals(Set.of("신라", "라면", "면c", "cu", "up"), HangulNGramTokenizer.bigrams("신라면cup"));
+    }
+
+    @Test
+    void rankingTermsKeepRepeatedGrams() {
+        List<String> terms = HangulNGramTokenizer.rankingTerms("라면 라면");
+
+        assertEquals(2, terms.stream().filter("라면"::equals).count());
+        assertTrue(HangulNGramTokenizer.rankingGrams("컵라면").contains("컵라면"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordAutomatonTest {
+
+    private static List<String> scan(KeywordAutomaton automaton, String text) {
+        List<String> matches = new ArrayList<>();
+        automaton.scan(text, (payload, start, end) -> matches.add(payload + ":" + text.substring(start, end)));
+        return matches;
+    }
+
+    @Test
+    void findsAllOverlappingPatterns() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("he", 1)
+                .add("she", 2)
+                .add("his", 3)
+                .add("hers", 4)
+                .build();
+
+        assertEquals(List.of("2:she", "1:he", "4:hers"), scan(automaton, "ushers"));
+    }
+
+    @Test
+    void findsNestedKeywordsInsideHangulCompound() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("라면", 1)
+                .add("컵라면", 2)
+                .add("면", 3)
+                .build();
+
+        List<String> matches = scan(automaton, "매운컵라면");
+
+        assertEquals(3, matches.size());
+        assertTrue(matches.containsAll(List.of("1:라면", "2:컵라면", "3:면")));
+    }
+
+    @Test
+    void matchesCaseInsensitivelyAndReportsOriginalPositions() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("Coffee", 7)
+                .build();
+
+        List<int[]> positions = new ArrayList<>();
+        automaton.scan("Instant COFFEE mix", (payload, start, end) -> positions.add(new int[]{payload, start, end}));
+
+        assertEquals(1, positions.size());
+        assertEquals(7, positions.get(0)[0]);
+        assertEquals(8, positions.get(0)[1]);
+        assertEquals(14, positions.get(0)[2]);
+    }
+
+    @Test
+    void reportsEveryPayloadOfSharedPatternAndIgnoresBlankPatterns() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("차", 1)
+                .add("차", 2)
+                .add(" ", 3)
+                .add(null, 4)
+                .build();
+
+        assertEquals(List.of("1:차", "2:차", "1:차", "2:차"), scan(automaton, "녹차 홍차"));
+    }
+
+    @Test
+    void reportsNothingWithoutMatch() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder().add("김치", 1).build();
+
+        assertTrue(scan(automaton, "간장 고추장").isEmpty());
+        assertTrue(scan(automaton, "").isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NGramPostingsIndexTest {
+
+    private final NGramPostingsIndex index = NGramPostingsIndex.build(
+            List.of("라면", "컵라면", "라볶이", "면", ""), HangulNGramTokenizer::substringIndexGrams);
+
+    @Test
+    void containingAllIntersectsPostings() {
+        assertEquals(docs(0, 1), index.containingAll(Set.of("라면")));
+        // "라" 와 "면" 을 모두 가진 문서만: "라볶이" 와 "면" 은 하나씩만 갖는다
+        assertEquals(docs(0, 1), index.containingAll(Set.of("라", "면")));
+        assertEquals(docs(0, 1, 3), index.containingAll(Set.of("면")));
+    }
+
+    @Test
+    void unknownGramMatchesNothing() {
+        assertEquals(new BitSet(), index.containingAll(Set.of("라면", "우동")));
+        assertEquals(0, index.postings("우동").length);
+    }
+
+    @Test
+    void emptyQueryMatchesEveryDocument() {
+        assertEquals(docs(0, 1, 2, 3, 4), index.containingAll(Set.of()));
+        assertEquals(5, index.size());
+    }
+
+    private static BitSet docs(int... ids) {
+        BitSet docs = new BitSet();
+        for (int id : ids) {
+            docs.set(id);
+        }
+        return docs;
+    }
+}
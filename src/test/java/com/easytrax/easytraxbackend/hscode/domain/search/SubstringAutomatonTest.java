@@ -0,0 +1,82 @@
+package com.easytrax.easytraxbackend.hscode.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SubstringAutomatonTest {
+
+    @Test
+    void findsTextsContainingQuery() {
+        SubstringAutomaton automaton = SubstringAutomaton.builder()
+                .add("컵라면", 0)
+                .add("라면", 1)
+                .add("Instant Noodles", 2)
+                .add("소면", 3)
+                .build();
+
+        assertArrayEquals(new int[]{0, 1}, automaton.containing("라면"));
+        assertArrayEquals(new int[]{0, 1, 3}, automaton.containing("면"));
+        assertArrayEquals(new int[]{2}, automaton.containing("NOODLE"));
+        assertArrayEquals(new int[0], automaton.containing("라면컵"));
+        assertArrayEquals(new int[0], automaton.containing(""));
+    }
+
+    @Test
+    void doesNotMatchAcrossTextBoundaries() {
+        SubstringAutomaton automaton = SubstringAutomaton.builder()
+                .add("커피", 0)
+                .add("믹스", 0)
+                .build();
+
+        assertArrayEquals(new int[0], automaton.containing("피믹"));
+        assertArrayEquals(new int[]{0}, automaton.containing("믹"));
+    }
+
+    @Test
+    void reportsPayloadOnceWhenSeveralTextsShareIt() {
+        SubstringAutomaton automaton = SubstringAutomaton.builder()
+                .add("라면", 7)
+                .add("봉지라면", 7)
+                .add("라면", 2)
+                .build();
+
+        assertArrayEquals(new int[]{2, 7}, automaton.containing("라면"));
+    }
+
+    // 같은 접두사를 공유하는 텍스트가 많아 상태 분할이 자주 일어나도 단순 contains 와 같아야 한다
+    @Test
+    void matchesBruteForceContainsOnRandomTexts() {
+        Random random = new Random(42);
+        List<String> texts = IntStream.range(0, 60)
+                .mapToObj(i -> randomText(random, 1 + random.nextInt(12)))
+                .toList();
+        SubstringAutomaton.Builder builder = SubstringAutomaton.builder();
+        for (int i = 0; i < texts.size(); i++) {
+            builder.add(texts.get(i), i);
+        }
+        SubstringAutomaton automaton = builder.build();
+
+        for (int trial = 0; trial < 2000; trial++) {
+            String query = randomText(random, 1 + random.nextInt(4));
+            int[] expected = IntStream.range(0, texts.size())
+                    .filter(i -> texts.get(i).contains(query))
+                    .toArray();
+            assertEquals(Arrays.toString(expected), Arrays.toString(automaton.containing(query)), query);
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append("라면컵ab".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+}